@@ -2,6 +2,8 @@ package am.aua.space_encyclopedia;
 
 import javax.swing.*;
 import java.awt.*;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
 import am.aua.space_encyclopedia.core.*;
 import am.aua.space_encyclopedia.gui.*;
 import am.aua.space_encyclopedia.data.DataManager;
@@ -9,6 +11,8 @@ import am.aua.space_encyclopedia.data.DataManager;
 /**
  * The main GUI application window for the Space Encyclopedia.
  * This class initializes and manages the layout and panels of the application.
+ * The window appears at once with an empty catalog; the data file is then read in the background and the
+ * panels fill in as it is loaded, while a progress bar at the bottom shows how far loading has come.
  * <p>
  * An object of type <code>GUISpaceEncyclopedia</code> contains:
  * <ul>
@@ -16,6 +20,7 @@ import am.aua.space_encyclopedia.data.DataManager;
  *   <li>A field of type <code>CardLayout</code> to handle layout switching between panels.</li>
  *   <li>A field of type <code>JPanel</code> to contain the main panels and manage navigation.</li>
  *   <li>Fields of type <code>BrowsePanel</code>, <code>SearchPanel</code>, and <code>DetailsPanel</code> to represent the different panels in the application.</li>
+ *   <li>A field of type <code>JProgressBar</code> showing the progress of loading the catalog.</li>
  * </ul>
  */
 public class GUISpaceEncyclopedia extends JFrame {
@@ -25,14 +30,16 @@ public class GUISpaceEncyclopedia extends JFrame {
     private SearchPanel searchPanel;
     private DetailsPanel detailsPanel;
     private BrowsePanel browsePanel;
+    private JProgressBar loadingBar;
 
     /**
      * Constructs the main window for the Space Encyclopedia GUI.
      * Initializes the panels and sets up layout switching with CardLayout.
+     * The catalog starts empty; call <code>loadCatalog</code> to fill it.
      */
     public GUISpaceEncyclopedia() {
         super("Space Encyclopedia");
-        this.dataManager = new DataManager();
+        this.dataManager = new DataManager(false);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setSize(1200, 800);
         setLocationRelativeTo(null);
@@ -47,17 +54,61 @@ public class GUISpaceEncyclopedia extends JFrame {
                 e -> cardLayout.show(mainPanel, "MENU"),
                 e -> showSelectedObject()
         );
-        detailsPanel = new DetailsPanel(e -> cardLayout.show(mainPanel, "SEARCH"));
+        detailsPanel = new DetailsPanel(e -> cardLayout.show(mainPanel, "SEARCH"), dataManager.getDetailsCache());
 
         mainPanel.add(createMenuPanel(), "MENU");
         mainPanel.add(browsePanel, "BROWSE");
         mainPanel.add(searchPanel, "SEARCH");
         mainPanel.add(detailsPanel, "DETAILS");
 
+        loadingBar = new JProgressBar(0, 100);
+        loadingBar.setStringPainted(true);
+        loadingBar.setString("Loading catalog...");
+        loadingBar.setVisible(false);
+
         add(mainPanel, BorderLayout.CENTER);
+        add(loadingBar, BorderLayout.SOUTH);
         cardLayout.show(mainPanel, "MENU");
     }
 
+    /**
+     * Loads the catalog on a background thread. The browse lists fill in as bodies arrive, the progress bar
+     * follows the file, and the current search is run again as bodies arrive and once everything is loaded.
+     */
+    public void loadCatalog() {
+        loadingBar.setValue(0);
+        loadingBar.setVisible(true);
+        new SwingWorker<Void, Integer>() {
+            @Override
+            protected Void doInBackground() {
+                dataManager.loadData((bytesRead, totalBytes) ->
+                        publish(totalBytes == 0 ? 100 : (int) (100 * bytesRead / totalBytes)));
+                return null;
+            }
+
+            @Override
+            protected void process(List<Integer> percentages) {
+                int percent = percentages.get(percentages.size() - 1);
+                loadingBar.setValue(percent);
+                loadingBar.setString("Loading catalog... " + percent + "%");
+                searchPanel.refreshSearch();
+            }
+
+            @Override
+            protected void done() {
+                loadingBar.setVisible(false);
+                searchPanel.refreshSearch();
+                try {
+                    get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    System.out.println("Error loading catalog: " + e.getCause());
+                }
+            }
+        }.execute();
+    }
+
     /**
      * Displays the details panel for the given celestial body.
      * @param body The celestial body whose details are to be shown.
@@ -86,7 +137,10 @@ public class GUISpaceEncyclopedia extends JFrame {
     private void showSelectedObject() {
         String selected = searchPanel.getSelectedObjectName();
         if (selected != null) {
-            CelestialBody body = dataManager.findCelestialBodyByName(selected);
+            Class<? extends CelestialBody> type = searchPanel.getSelectedObjectType();
+            CelestialBody body = type != null
+                    ? dataManager.findCelestialBodyByName(selected, type)
+                    : dataManager.findCelestialBodyByName(selected);
             if (body != null)
                 showDetailsPanel(body);
             else
@@ -101,7 +155,10 @@ public class GUISpaceEncyclopedia extends JFrame {
      * @param args Command-line arguments (not used).
      */
     public static void main(String[] args) {
-        GUISpaceEncyclopedia gui = new GUISpaceEncyclopedia();
-        gui.setVisible(true);
+        SwingUtilities.invokeLater(() -> {
+            GUISpaceEncyclopedia gui = new GUISpaceEncyclopedia();
+            gui.setVisible(true);
+            gui.loadCatalog();
+        });
     }
 }
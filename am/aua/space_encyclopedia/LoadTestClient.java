@@ -0,0 +1,210 @@
+package am.aua.space_encyclopedia;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Sends requests to a running <code>ServerSpaceEncyclopedia</code> with many in flight at once and reports the
+ * latency percentiles of each endpoint.
+ * <p>
+ * The client first asks <code>/search</code> for up to a thousand names, then cycles through <code>/bodies</code>,
+ * <code>/search</code> and <code>/facts</code> for those names, keeping the given number of requests open at all
+ * times. A warm-up round of a tenth of the requests is sent first and not counted. The latency of a request runs
+ * from just before it is sent until its whole answer has arrived, so it includes the time spent waiting for a
+ * connection or a server thread; with more requests open than the server can run, it grows with the queue.
+ * Answers other than 200 and failed requests are counted as errors.
+ * <p>
+ * Client and server compete for the same cores when they run on one machine, so numbers measured that way are
+ * a lower bound for the server alone.
+ * <p>
+ * An object of type <code>LoadTestClient</code> contains:
+ * <ul>
+ *   <li><code>baseUrl</code> - The address of the server, e.g. <code>http://localhost:8080</code></li>
+ *   <li><code>concurrency</code> - The number of requests kept in flight</li>
+ *   <li><code>client</code> - The JDK's <code>HttpClient</code> sending the requests</li>
+ * </ul>
+ */
+public class LoadTestClient {
+    private static final String[] ENDPOINTS = { "bodies", "search", "facts" };
+    private static final Pattern NAME = Pattern.compile("\"name\":\"((?:[^\"\\\\]|\\\\.)*)\"");
+    private static final int NAME_SAMPLE = 1000;
+
+    private final String baseUrl;
+    private final int concurrency;
+    private final ExecutorService callbacks = Executors.newFixedThreadPool(4);
+    private final HttpClient client;
+
+    /**
+     * Constructs a client for the given server.
+     * @param baseUrl the address of the server, without a trailing slash
+     * @param concurrency the number of requests to keep in flight (must be positive)
+     * @throws IllegalArgumentException if concurrency is not positive
+     */
+    public LoadTestClient(String baseUrl, int concurrency) {
+        if (concurrency <= 0)
+            throw new IllegalArgumentException("Concurrency must be positive");
+        this.baseUrl = baseUrl;
+        this.concurrency = concurrency;
+        this.client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(callbacks).build();
+    }
+
+    /**
+     * Runs the test and prints the results.
+     * @param requests the number of requests to measure
+     * @throws Exception if the server cannot be reached for the list of names
+     */
+    public void run(int requests) throws Exception {
+        List<String> names = fetchNames();
+        System.out.println("Testing " + baseUrl + " with " + names.size() + " names, " + concurrency
+                + " requests in flight, " + requests + " requests");
+
+        send(createRequests(names, Math.max(1, requests / 10)), new long[ENDPOINTS.length][], new AtomicInteger());
+
+        long[][] latencies = new long[ENDPOINTS.length][];
+        AtomicInteger errors = new AtomicInteger();
+        long start = System.nanoTime();
+        send(createRequests(names, requests), latencies, errors);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%.0f requests per second, %d errors%n", requests / seconds, errors.get());
+        System.out.printf("%-8s %8s %10s %10s %10s %10s %10s%n", "endpoint", "count", "p50 (ms)", "p90 (ms)",
+                "p99 (ms)", "p99.9 (ms)", "max (ms)");
+        long[] all = new long[0];
+        for (int e = 0; e < ENDPOINTS.length; e++) {
+            print(ENDPOINTS[e], latencies[e]);
+            int length = all.length;
+            all = Arrays.copyOf(all, length + latencies[e].length);
+            System.arraycopy(latencies[e], 0, all, length, latencies[e].length);
+        }
+        print("all", all);
+    }
+
+    /**
+     * Releases the threads of the client.
+     */
+    public void close() {
+        callbacks.shutdownNow();
+    }
+
+    /**
+     * Asks the server for names to look up, falling back to "Sun" if it has none.
+     */
+    private List<String> fetchNames() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/search?prefix=&limit=" + NAME_SAMPLE))
+                .build();
+        String body = client.send(request, HttpResponse.BodyHandlers.ofString()).body();
+        ArrayList<String> names = new ArrayList<>();
+        Matcher matcher = NAME.matcher(body);
+        while (matcher.find())
+            names.add(matcher.group(1).replace("\\\"", "\"").replace("\\\\", "\\"));
+        if (names.isEmpty())
+            names.add("Sun");
+        return names;
+    }
+
+    /**
+     * Builds the requests, taking the endpoints in turn and the names in order.
+     */
+    private HttpRequest[] createRequests(List<String> names, int count) {
+        HttpRequest[] requests = new HttpRequest[count];
+        for (int i = 0; i < count; i++) {
+            String name = names.get(i / ENDPOINTS.length % names.size());
+            String query;
+            if (i % ENDPOINTS.length == 1)
+                query = "prefix=" + encode(name.substring(0, Math.min(2, name.length()))) + "&limit=20";
+            else
+                query = "name=" + encode(name);
+            requests[i] = HttpRequest.newBuilder(URI.create(baseUrl + "/" + ENDPOINTS[i % ENDPOINTS.length]
+                    + "?" + query)).build();
+        }
+        return requests;
+    }
+
+    /**
+     * Sends every request, never more than <code>concurrency</code> at once, and records the latency of each.
+     * @param latencies filled with the sorted latencies in nanoseconds of each endpoint
+     * @param errors counts the requests that failed or were not answered with 200
+     */
+    private void send(HttpRequest[] requests, long[][] latencies, AtomicInteger errors) throws InterruptedException {
+        long[] times = new long[requests.length];
+        Semaphore inFlight = new Semaphore(concurrency);
+        CountDownLatch done = new CountDownLatch(requests.length);
+        for (int i = 0; i < requests.length; i++) {
+            int index = i;
+            inFlight.acquire();
+            long start = System.nanoTime();
+            client.sendAsync(requests[i], HttpResponse.BodyHandlers.ofByteArray()).whenComplete((response, e) -> {
+                times[index] = System.nanoTime() - start;
+                if (e != null || response.statusCode() != 200)
+                    errors.incrementAndGet();
+                inFlight.release();
+                done.countDown();
+            });
+        }
+        done.await();
+
+        for (int e = 0; e < ENDPOINTS.length; e++) {
+            int count = (requests.length - e + ENDPOINTS.length - 1) / ENDPOINTS.length;
+            latencies[e] = new long[count];
+            for (int i = 0; i < count; i++)
+                latencies[e][i] = times[e + i * ENDPOINTS.length];
+            Arrays.sort(latencies[e]);
+        }
+    }
+
+    private static void print(String label, long[] sorted) {
+        Arrays.sort(sorted);
+        if (sorted.length == 0)
+            return;
+        System.out.printf("%-8s %8d %10.2f %10.2f %10.2f %10.2f %10.2f%n", label, sorted.length,
+                percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+                percentile(sorted, 0.999), sorted[sorted.length - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, double fraction) {
+        return sorted[Math.min(sorted.length - 1, (int) (fraction * sorted.length))] / 1e6;
+    }
+
+    private static String encode(String text) {
+        return URLEncoder.encode(text, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Runs a load test.
+     * @param args Command-line arguments: optionally the server address (http://localhost:8080 by default),
+     *             the number of requests in flight (256) and the number of requests (30000).
+     */
+    public static void main(String[] args) {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:" + ServerSpaceEncyclopedia.DEFAULT_PORT;
+        if (baseUrl.endsWith("/"))
+            baseUrl = baseUrl.substring(0, baseUrl.length() - 1);
+        LoadTestClient loadTest = null;
+        try {
+            int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 256;
+            int requests = args.length > 2 ? Integer.parseInt(args[2]) : 30_000;
+            loadTest = new LoadTestClient(baseUrl, concurrency);
+            loadTest.run(requests);
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid number: " + e.getMessage());
+        } catch (Exception e) {
+            System.err.println("An error occurred: " + e);
+        } finally {
+            if (loadTest != null)
+                loadTest.close();
+        }
+    }
+}
@@ -0,0 +1,451 @@
+package am.aua.space_encyclopedia;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import am.aua.space_encyclopedia.core.*;
+import am.aua.space_encyclopedia.data.*;
+
+/**
+ * Serves the Space Encyclopedia as JSON over HTTP, for tools that do not need the console or the GUI.
+ * <p>
+ * The endpoints, all answering <code>GET</code> only:
+ * <ul>
+ *   <li><code>/bodies?name=Sun[&amp;type=star|planet|galaxy]</code> - The body with that name</li>
+ *   <li><code>/search?prefix=Al[&amp;limit=20]</code> - The bodies whose names start with the prefix,
+ *       in name order</li>
+ *   <li><code>/facts?name=Sun[&amp;type=...]</code> - The summary and the facts of a body, as shown by
+ *       <code>v</code></li>
+ * </ul>
+ * A path that is not exactly one of the endpoints gets 404.
+ * <p>
+ * Each request reads one <code>CatalogSnapshot</code> and renders its answer itself, without taking any lock, so
+ * requests never wait for each other or for writers. They run on a virtual thread each when the JVM has them
+ * (Java 21 and later), and otherwise on a fixed pool of platform threads; the server keeps accepting connections
+ * either way and queues what the pool cannot run yet. The server turns on <code>TCP_NODELAY</code>
+ * (<code>sun.net.httpserver.nodelay</code>) unless the property is set on the command line.
+ * <code>LoadTestClient</code> measures the latency of a running server.
+ * <p>
+ * An object of type <code>ServerSpaceEncyclopedia</code> contains:
+ * <ul>
+ *   <li><code>dataManager</code> - The catalog being served</li>
+ *   <li><code>server</code> - The JDK's built-in <code>HttpServer</code></li>
+ *   <li><code>executor</code> - The executor running the requests</li>
+ * </ul>
+ */
+public class ServerSpaceEncyclopedia {
+    /** The port used when none is given on the command line. */
+    public static final int DEFAULT_PORT = 8080;
+    /** The number of results <code>/search</code> returns when no limit is given. */
+    public static final int DEFAULT_SEARCH_LIMIT = 20;
+    /** The largest limit <code>/search</code> accepts. */
+    public static final int MAX_SEARCH_LIMIT = 1000;
+    /** The number of connections the operating system may queue before the server accepts them. */
+    private static final int BACKLOG = 4096;
+
+    static {
+        // the JDK server sends the headers and the body of an answer in separate writes; without TCP_NODELAY the
+        // body waits for the client's delayed ACK, which adds about 40 ms to every request on a kept-alive connection
+        if (System.getProperty("sun.net.httpserver.nodelay") == null)
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final DataManager dataManager;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * Creates a server for the given catalog on the given port. The server does not answer until <code>start</code>.
+     * @param dataManager the catalog to serve
+     * @param port the port to listen on, or 0 for any free port
+     * @throws IOException if the port cannot be opened
+     * @throws IllegalArgumentException if dataManager is null
+     */
+    public ServerSpaceEncyclopedia(DataManager dataManager, int port) throws IOException {
+        if (dataManager == null)
+            throw new IllegalArgumentException("Data manager cannot be null");
+        this.dataManager = dataManager;
+        this.server = HttpServer.create(new InetSocketAddress(port), BACKLOG);
+        this.executor = createExecutor();
+        server.setExecutor(executor);
+        server.createContext("/bodies", json(this::handleBody));
+        server.createContext("/search", json(this::handleSearch));
+        server.createContext("/facts", json(this::handleFacts));
+    }
+
+    /**
+     * Starts answering requests in the background.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops the server, giving requests in progress up to the given delay to finish.
+     * @param delaySeconds the longest time to wait, in seconds
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(delaySeconds, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns the port the server listens on.
+     * @return the port
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Answers <code>/bodies</code> with the body of the given name.
+     */
+    private Response handleBody(Map<String, String> parameters) {
+        CelestialBody body = findBody(dataManager.getSnapshot(), parameters);
+        if (body == null)
+            return notFound(parameters.get("name"));
+        StringBuilder json = new StringBuilder(256);
+        appendBody(json, body);
+        return new Response(200, json);
+    }
+
+    /**
+     * Answers <code>/search</code> with the stars, planets and galaxies starting with the prefix, merged by name.
+     */
+    private Response handleSearch(Map<String, String> parameters) {
+        String prefix = parameters.get("prefix");
+        if (prefix == null)
+            return error(400, "Missing parameter: prefix");
+        int limit = DEFAULT_SEARCH_LIMIT;
+        String limitText = parameters.get("limit");
+        if (limitText != null) {
+            try {
+                limit = Integer.parseInt(limitText);
+            } catch (NumberFormatException e) {
+                return error(400, "Invalid limit: " + limitText);
+            }
+            if (limit <= 0 || limit > MAX_SEARCH_LIMIT)
+                return error(400, "Limit must be between 1 and " + MAX_SEARCH_LIMIT);
+        }
+
+        CatalogSnapshot snapshot = dataManager.getSnapshot();
+        List<CelestialBody> results = mergeByName(limit, snapshot.findStarsByPrefix(prefix, limit),
+                snapshot.findPlanetsByPrefix(prefix, limit), snapshot.findGalaxiesByPrefix(prefix, limit));
+
+        StringBuilder json = new StringBuilder(64 + 160 * results.size());
+        json.append("{\"prefix\":");
+        appendString(json, prefix);
+        json.append(",\"count\":").append(results.size()).append(",\"results\":[");
+        for (int i = 0; i < results.size(); i++) {
+            if (i > 0)
+                json.append(',');
+            appendBody(json, results.get(i));
+        }
+        json.append("]}");
+        return new Response(200, json);
+    }
+
+    /**
+     * Answers <code>/facts</code> with the summary and facts of the body of the given name. They are rendered for
+     * every request rather than taken from the <code>DetailsCache</code>, whose lock all requests would share.
+     */
+    private Response handleFacts(Map<String, String> parameters) {
+        CelestialBody body = findBody(dataManager.getSnapshot(), parameters);
+        if (body == null)
+            return notFound(parameters.get("name"));
+        StringBuilder json = new StringBuilder(512);
+        json.append("{\"name\":");
+        appendString(json, body.getName());
+        json.append(",\"kind\":");
+        appendString(json, body.getClass().getSimpleName());
+        json.append(",\"summary\":");
+        appendString(json, body.toString());
+        json.append(",\"facts\":");
+        appendString(json, body.showFacts());
+        json.append('}');
+        return new Response(200, json);
+    }
+
+    /**
+     * Looks up the <code>name</code> parameter, restricted to the kind in the <code>type</code> parameter if any.
+     * @return the body, or null if there is none
+     * @throws IllegalArgumentException if the name is missing or the type is unknown
+     */
+    private static CelestialBody findBody(CatalogSnapshot snapshot, Map<String, String> parameters) {
+        String name = parameters.get("name");
+        if (name == null || name.trim().isEmpty())
+            throw new IllegalArgumentException("Missing parameter: name");
+        String type = parameters.get("type");
+        if (type == null)
+            return snapshot.findCelestialBodyByName(name);
+        switch (type.toLowerCase()) {
+            case "star":
+                return snapshot.findCelestialBodyByName(name, Star.class);
+            case "planet":
+                return snapshot.findCelestialBodyByName(name, Planet.class);
+            case "galaxy":
+                return snapshot.findCelestialBodyByName(name, Galaxy.class);
+            default:
+                throw new IllegalArgumentException("Unknown type: " + type);
+        }
+    }
+
+    /**
+     * Merges lists that are each sorted by name key into one sorted list of at most <code>limit</code> bodies.
+     */
+    @SafeVarargs
+    private static List<CelestialBody> mergeByName(int limit, List<? extends CelestialBody>... lists) {
+        ArrayList<CelestialBody> merged = new ArrayList<>();
+        int[] positions = new int[lists.length];
+        while (merged.size() < limit) {
+            int next = -1;
+            for (int i = 0; i < lists.length; i++) {
+                if (positions[i] < lists[i].size() && (next < 0 || lists[i].get(positions[i]).getNameKey()
+                        .compareTo(lists[next].get(positions[next]).getNameKey()) < 0))
+                    next = i;
+            }
+            if (next < 0)
+                break;
+            merged.add(lists[next].get(positions[next]++));
+        }
+        return merged;
+    }
+
+    /**
+     * Appends a body as a JSON object with its kind, its common properties and those of its subclass.
+     */
+    private static void appendBody(StringBuilder json, CelestialBody body) {
+        json.append("{\"kind\":");
+        appendString(json, body.getClass().getSimpleName());
+        json.append(",\"name\":");
+        appendString(json, body.getName());
+        json.append(",\"type\":");
+        appendString(json, body.getType());
+        json.append(",\"distanceFromEarth\":");
+        appendNumber(json, body.getDistanceFromEarth());
+        json.append(",\"mass\":");
+        appendNumber(json, body.getMass());
+        json.append(",\"temperature\":");
+        appendNumber(json, body.getTemperature());
+        if (body instanceof Star) {
+            Star star = (Star) body;
+            json.append(",\"color\":");
+            appendString(json, star.getColor());
+            json.append(",\"luminosity\":");
+            appendNumber(json, star.getLuminosity());
+            json.append(",\"size\":");
+            appendNumber(json, star.getSize());
+        } else if (body instanceof Planet) {
+            Planet planet = (Planet) body;
+            json.append(",\"atmosphericComposition\":");
+            appendString(json, planet.getAtmosphericComposition());
+            json.append(",\"numberOfMoons\":").append(planet.getNumberOfMoons());
+            json.append(",\"surfaceConditions\":");
+            appendString(json, planet.getSurfaceConditions());
+            json.append(",\"radius\":");
+            appendNumber(json, planet.getRadius());
+        } else if (body instanceof Galaxy) {
+            Galaxy galaxy = (Galaxy) body;
+            json.append(",\"numberOfStars\":").append(galaxy.getNumberOfStars());
+            json.append(",\"diameter\":");
+            appendNumber(json, galaxy.getDiameter());
+            json.append(",\"age\":");
+            appendNumber(json, galaxy.getAge());
+        }
+        json.append('}');
+    }
+
+    /**
+     * Appends a number, or <code>null</code> for NaN and infinities, which JSON cannot represent.
+     */
+    private static void appendNumber(StringBuilder json, double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value))
+            json.append("null");
+        else
+            json.append(value);
+    }
+
+    /**
+     * Appends a JSON string literal, escaping quotes, backslashes and control characters.
+     */
+    private static void appendString(StringBuilder json, String value) {
+        if (value == null) {
+            json.append("null");
+            return;
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20 || c == '\u2028' || c == '\u2029') {
+                        json.append("\\u");
+                        String hex = Integer.toHexString(c);
+                        for (int j = hex.length(); j < 4; j++)
+                            json.append('0');
+                        json.append(hex);
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        json.append('"');
+    }
+
+    private static Response notFound(String name) {
+        return error(404, "No celestial body named " + name.trim());
+    }
+
+    private static Response error(int status, String message) {
+        StringBuilder json = new StringBuilder(64 + message.length());
+        json.append("{\"error\":");
+        appendString(json, message);
+        json.append('}');
+        return new Response(status, json);
+    }
+
+    /**
+     * Wraps an endpoint into a handler that checks the path and the method, decodes the query, turns an
+     * <code>IllegalArgumentException</code> into a 400 answer and writes the JSON.
+     * A context matches every path that starts with its own, so <code>/bodiesXYZ</code> and <code>/bodies/x</code>
+     * reach the handler too and are answered with 404 here.
+     */
+    private static HttpHandler json(Endpoint endpoint) {
+        return exchange -> {
+            try (exchange) {
+                Response response;
+                String path = exchange.getRequestURI().getPath();
+                if (!exchange.getHttpContext().getPath().equals(path)) {
+                    response = error(404, "Unknown path: " + path);
+                } else if (!"GET".equals(exchange.getRequestMethod())) {
+                    exchange.getResponseHeaders().set("Allow", "GET");
+                    response = error(405, "Only GET is supported");
+                } else {
+                    try {
+                        response = endpoint.handle(parseQuery(exchange.getRequestURI().getRawQuery()));
+                    } catch (IllegalArgumentException e) {
+                        response = error(400, e.getMessage());
+                    } catch (RuntimeException e) {
+                        System.out.println("Error answering " + exchange.getRequestURI() + ": " + e);
+                        response = error(500, "Internal error");
+                    }
+                }
+                send(exchange, response);
+            }
+        };
+    }
+
+    private static void send(HttpExchange exchange, Response response) throws IOException {
+        byte[] bytes = response.body.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(response.status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Decodes <code>key=value&amp;...</code>; the first value of a repeated key wins.
+     */
+    private static Map<String, String> parseQuery(String rawQuery) {
+        HashMap<String, String> parameters = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty())
+            return parameters;
+        for (String pair : rawQuery.split("&")) {
+            if (pair.isEmpty())
+                continue;
+            int equals = pair.indexOf('=');
+            String key = URLDecoder.decode(equals < 0 ? pair : pair.substring(0, equals), StandardCharsets.UTF_8);
+            String value = equals < 0 ? "" : URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8);
+            parameters.putIfAbsent(key, value);
+        }
+        return parameters;
+    }
+
+    /**
+     * Returns a virtual-thread-per-task executor when the JVM provides one, and otherwise a fixed thread pool.
+     * The lookup is reflective so the server still compiles and runs on Java 17.
+     */
+    private static ExecutorService createExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            // requests only read memory and write a small answer, so a few threads per core keep every core busy
+            return Executors.newFixedThreadPool(Math.max(8, 4 * Runtime.getRuntime().availableProcessors()));
+        }
+    }
+
+    /** An endpoint turning the decoded query parameters into an answer. */
+    private interface Endpoint {
+        Response handle(Map<String, String> parameters);
+    }
+
+    /** An HTTP status and a JSON body. */
+    private static class Response {
+        private final int status;
+        private final CharSequence body;
+
+        private Response(int status, CharSequence body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+
+    /**
+     * Starts the server.
+     * @param args Command-line arguments: optionally the port to listen on (8080 by default).
+     */
+    public static void main(String[] args) {
+        int port = DEFAULT_PORT;
+        if (args.length > 0) {
+            try {
+                port = Integer.parseInt(args[0]);
+            } catch (NumberFormatException e) {
+                System.err.println("Invalid port: " + args[0]);
+                return;
+            }
+        }
+        try {
+            ServerSpaceEncyclopedia server = new ServerSpaceEncyclopedia(new DataManager(), port);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> server.stop(1)));
+            server.start();
+            System.out.println("Space Encyclopedia server listening on http://localhost:" + server.getPort() + "/");
+        } catch (IOException e) {
+            System.err.println("An error occurred: " + e.getMessage());
+        }
+    }
+}
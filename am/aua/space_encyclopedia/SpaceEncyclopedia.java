@@ -1,12 +1,21 @@
 package am.aua.space_encyclopedia;
 import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
 import am.aua.space_encyclopedia.core.*;
 import am.aua.space_encyclopedia.data.*;
+import am.aua.space_encyclopedia.query.*;
 
 public class SpaceEncyclopedia {
+    private static final int SUGGESTION_LIMIT = 5;
+    private static final int LIST_PAGE_SIZE = 20;
     private  DataManager dataManager;
+    private QueryEngine queryEngine;
     public SpaceEncyclopedia() {
         this.dataManager = new DataManager();
+        this.queryEngine = new QueryEngine(dataManager);
     }
     public String showMenuPage() {
         StringBuilder menu = new StringBuilder();
@@ -18,6 +27,8 @@ public class SpaceEncyclopedia {
         menu.append("l          - List all known celestial objects\n");
         menu.append("s <name>   - Search celestial bodies by name\n");
         menu.append("v <name>   - View detailed info about a specific celestial body\n");
+        menu.append("b <file>   - Look up every name listed in a file, one name per line\n");
+        menu.append("x <query>  - Run a query, e.g. x stars where temperature > 6000 order by luminosity desc limit 5\n");
         menu.append("m          - Show this command menu again\n");
         menu.append("q          - Exit the encyclopedia\n");
         menu.append("------------------------------------------------------------\n");
@@ -32,7 +43,7 @@ public class SpaceEncyclopedia {
         while (!(command.equals("q")) ){
             try {
                 System.out.println("\nLet's explore the universe!\n");
-                System.out.println("You can explore by inputting l, s <name>, v <name>; input m to go back to main menu;");
+                System.out.println("You can explore by inputting l, s <name>, v <name>, b <file>, x <query>; input m to go back to main menu;");
                 System.out.println( "or stop the game by inputting q: " );
                 command = input.readLine().trim();
                 // Shows all celestial objects
@@ -40,19 +51,13 @@ public class SpaceEncyclopedia {
                     System.out.println("\n=== ALL OBJECTS ===");
 
                     System.out.println("STARS:");
-                    for (Star star : dataManager.getStars()) {
-                        System.out.println("- " + star.getName());
-                    }
+                    listPaged(cursor -> dataManager.getStarsPage(cursor, LIST_PAGE_SIZE), input);
 
                     System.out.println("\nPLANETS:");
-                    for (Planet planet : dataManager.getPlanets()) {
-                        System.out.println("- " + planet.getName());
-                    }
+                    listPaged(cursor -> dataManager.getPlanetsPage(cursor, LIST_PAGE_SIZE), input);
 
                     System.out.println("\nGALAXIES:");
-                    for (Galaxy galaxy : dataManager.getGalaxies()) {
-                        System.out.println("- " + galaxy.getName());
-                    }
+                    listPaged(cursor -> dataManager.getGalaxiesPage(cursor, LIST_PAGE_SIZE), input);
                 }
                 // Shows details about a specific object
                 else if (command.startsWith("v")) {
@@ -61,21 +66,29 @@ public class SpaceEncyclopedia {
                         System.out.println("Please provide a name. Example: v Sun");
                         continue;
                     }
-                    CelestialBody object = dataManager.findCelestialBodyByName(name);
-                    if (object == null) {
+                    List<CelestialBody> matches = dataManager.findCelestialBodiesByName(name);
+                    if (matches.isEmpty()) {
                         System.out.println("Object not found: " + name);
-                        return;
+                        printSuggestions(name);
+                        // back to the prompt rather than ending the session, so a suggestion can be tried
+                        continue;
+                    }
+                    CelestialBody object = matches.get(0);
+                    for (int i = 1; i < matches.size(); i++) {
+                        CelestialBody other = matches.get(i);
+                        System.out.println("Note: " + other.getName() + " is also the name of a "
+                                + other.getClass().getSimpleName() + ".");
                     }
 
                     System.out.println("\n=== " + object.getName().toUpperCase() + " ===");
-                    System.out.println(object); // Basic info
+                    System.out.println(dataManager.getDetailsCache().getSummary(object)); // Basic info
 
                     System.out.println("\nInput 'f' for more facts about " + object.getName());
                     System.out.println("Or input l, s <name>, v <name>; m for main menu; q to quit.");
                     String response = input.readLine().trim();
                     if (response.equals("f")) {
                         System.out.println("\nDETAILED FACTS:");
-                        System.out.println(object.showFacts());
+                        System.out.println(dataManager.getDetailsCache().getFacts(object));
                     }
                 }
                 // Searches by name
@@ -87,30 +100,48 @@ public class SpaceEncyclopedia {
                     }
                     System.out.println("\nSEARCH RESULTS:");
 
-                    boolean found = false;
+                    List<CelestialBody> matches = dataManager.findCelestialBodiesContaining(term);
+                    for (CelestialBody body : matches) {
+                        System.out.println("[" + body.getClass().getSimpleName() + "] " + body.getName());
+                    }
 
-                    for (Star star : dataManager.getStars()) {
-                        if (star.getName().toLowerCase().contains(term.toLowerCase())) {
-                            System.out.println("[Star] " + star.getName());
-                            found = true;
-                        }
+                    if (matches.isEmpty()) {
+                        System.out.println("Sorry! " + term +" celestial body was not found.");
+                        printSuggestions(term);
                     }
-                    for (Planet planet : dataManager.getPlanets()) {
-                        if (planet.getName().toLowerCase().contains(term.toLowerCase())) {
-                            System.out.println("[Planet] " + planet.getName());
-                            found = true;
-                        }
+                }
+                // Looks up a batch of names from a file
+                else if (command.startsWith("b")) {
+                    String fileName = command.substring(1).trim();
+                    if (fileName.isEmpty()) {
+                        System.out.println("Please provide a file of names. Example: b names.txt");
+                        continue;
                     }
-
-                    for (Galaxy galaxy : dataManager.getGalaxies()) {
-                        if (galaxy.getName().toLowerCase().contains(term.toLowerCase())) {
-                            System.out.println("[Galaxy] " + galaxy.getName());
-                            found = true;
-                        }
+                    lookUpBatch(fileName);
+                }
+                // Runs a query
+                else if (command.startsWith("x")) {
+                    String text = command.substring(1).trim();
+                    if (text.isEmpty()) {
+                        System.out.println("Please provide a query. Example: x galaxies where type = Spiral order by distance limit 5");
+                        continue;
                     }
-
-                    if (!found) {
-                        System.out.println("Sorry! " + term +" celestial body was not found.");
+                    try {
+                        QueryResult result = queryEngine.execute(text);
+                        System.out.println("\nQUERY RESULTS (" + result.size() + ", " + result.getPlan() + "):");
+                        List<String> columns = result.getColumns();
+                        System.out.println(String.join(" | ", columns));
+                        for (int row = 0; row < result.size(); row++) {
+                            StringBuilder line = new StringBuilder();
+                            for (int column = 0; column < columns.size(); column++) {
+                                if (column > 0)
+                                    line.append(" | ");
+                                line.append(result.getValue(row, column));
+                            }
+                            System.out.println(line);
+                        }
+                    } catch (IllegalArgumentException e) {
+                        System.out.println("Invalid query: " + e.getMessage());
                     }
                 }
                 // Shows the menu again
@@ -133,6 +164,82 @@ public class SpaceEncyclopedia {
         System.out.println("Quiting the program. Goodbye!");
         System.out.println(showMenuPage());
     }
+    /**
+     * Prints one category page by page, asking after each full page whether to go on.
+     * @param fetch returns the page after a cursor (null for the first page)
+     * @param input the console input
+     * @throws IOException if the input cannot be read
+     */
+    private void listPaged(Function<String, Page<? extends CelestialBody>> fetch, BufferedReader input)
+            throws IOException {
+        Page<? extends CelestialBody> page = fetch.apply(null);
+        while (true) {
+            StringBuilder lines = new StringBuilder();
+            for (CelestialBody body : page.getItems())
+                lines.append("- ").append(body.getName()).append('\n');
+            System.out.print(lines);
+            if (!page.hasNext())
+                return;
+            System.out.println("Input n for the next " + LIST_PAGE_SIZE + ", or anything else to move on:");
+            String response = input.readLine();
+            if (response == null || !response.trim().equals("n"))
+                return;
+            page = fetch.apply(page.getNextCursor());
+        }
+    }
+    /**
+     * Reads the names in a file, one per line, looks them all up at once and prints the result of each
+     * in file order. Blank lines are skipped.
+     * @param fileName the file listing the names
+     */
+    private void lookUpBatch(String fileName) {
+        ArrayList<String> names = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(fileName))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.trim().isEmpty())
+                    names.add(line.trim());
+            }
+        } catch (IOException e) {
+            System.out.println("Could not read " + fileName + ": " + e.getMessage());
+            return;
+        }
+
+        List<Optional<CelestialBody>> results = dataManager.findAllByName(names);
+        System.out.println("\nBATCH RESULTS:");
+        StringBuilder report = new StringBuilder();
+        int found = 0;
+        for (int i = 0; i < names.size(); i++) {
+            report.append(names.get(i)).append(" -> ");
+            Optional<CelestialBody> result = results.get(i);
+            if (result.isPresent()) {
+                CelestialBody body = result.get();
+                report.append('[').append(body.getClass().getSimpleName()).append("] ").append(body.getName());
+                found++;
+            } else {
+                report.append("not found");
+            }
+            report.append('\n');
+        }
+        report.append(found).append(" of ").append(names.size()).append(" names found.");
+        System.out.println(report);
+    }
+    /**
+     * Prints the names closest to a name that was not found, if there are any.
+     * @param name the name that was not found
+     */
+    private void printSuggestions(String name) {
+        List<CelestialBody> similar = dataManager.findSimilarCelestialBodies(name, SUGGESTION_LIMIT);
+        if (similar.isEmpty())
+            return;
+        StringBuilder suggestions = new StringBuilder("Did you mean: ");
+        for (int i = 0; i < similar.size(); i++) {
+            if (i > 0)
+                suggestions.append(", ");
+            suggestions.append(similar.get(i).getName());
+        }
+        System.out.println(suggestions.append("?"));
+    }
     public static void main(String[] args) {
         try {
             SpaceEncyclopedia se = new SpaceEncyclopedia();
@@ -0,0 +1,251 @@
+package am.aua.space_encyclopedia.bench;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import am.aua.space_encyclopedia.core.*;
+import am.aua.space_encyclopedia.data.CatalogSnapshot;
+import am.aua.space_encyclopedia.data.DataManager;
+
+/**
+ * The <code>ConcurrencyStressTest</code> class runs writers and searching readers against one
+ * <code>DataManager</code> at the same time and checks that every reader only ever sees whole, consistent versions.
+ * <p>
+ * Writers add stars, planets and galaxies one at a time and in small batches. Readers wait for a version they have
+ * not checked yet and check that it is consistent with itself: its version and size never go back, its lists are sorted, every name in a list is
+ * found by name lookup, prefix search and "contains" search in the same snapshot, and nothing those searches return
+ * is missing from its lists. When the writers are done, the final catalog must hold every body that was added.
+ * <p>
+ * The first problem found is printed and the program exits with status 1; otherwise it prints the number of
+ * checks made and the median, 99th percentile and longest time of one check, and exits with status 0. Since every
+ * check is on a version just published, the times show what the searches cost right after the catalog changed.
+ * <p>
+ * Run it with <code>java am.aua.space_encyclopedia.bench.ConcurrencyStressTest [writers readers bodiesPerWriter]</code>;
+ * without arguments it uses 4 writers, 4 readers and 20,000 bodies per writer.
+ */
+public class ConcurrencyStressTest {
+    private static final int BATCH_SIZE = 50;
+    private static final int SEARCH_LIMIT = 20;
+
+    private final DataManager dataManager = new DataManager(false);
+    private final AtomicReference<String> failure = new AtomicReference<>();
+    private final AtomicLong checks = new AtomicLong();
+    private final List<long[]> checkTimes = new ArrayList<>();
+    private volatile boolean writing = true;
+
+    public static void main(String[] args) throws InterruptedException {
+        int writers = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int readers = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int bodiesPerWriter = args.length > 2 ? Integer.parseInt(args[2]) : 20_000;
+
+        ConcurrencyStressTest test = new ConcurrencyStressTest();
+        long start = System.nanoTime();
+        boolean passed = test.run(writers, readers, bodiesPerWriter);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        if (passed) {
+            System.out.println("Passed: " + test.checks.get() + " snapshot checks while " + writers + " writers added "
+                    + writers * bodiesPerWriter + " bodies, in " + millis + " ms");
+            long[] times = test.getCheckTimes();
+            if (times.length > 0)
+                System.out.printf("Check time: p50 %.2f ms, p99 %.2f ms, max %.2f ms%n", percentile(times, 0.50),
+                        percentile(times, 0.99), times[times.length - 1] / 1e6);
+        } else {
+            System.out.println("Failed: " + test.failure.get());
+            System.exit(1);
+        }
+    }
+
+    private boolean run(int writers, int readers, int bodiesPerWriter) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> writerThreads = new ArrayList<>();
+        List<Thread> readerThreads = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            int writer = w;
+            writerThreads.add(startThread(start, () -> write(writer, bodiesPerWriter)));
+        }
+        for (int r = 0; r < readers; r++)
+            readerThreads.add(startThread(start, this::read));
+
+        start.countDown();
+        for (Thread thread : writerThreads)
+            thread.join();
+        writing = false;
+        for (Thread thread : readerThreads)
+            thread.join();
+
+        if (failure.get() == null) {
+            CatalogSnapshot last = dataManager.getSnapshot();
+            check(last);
+            if (last.size() != writers * bodiesPerWriter)
+                fail("the final catalog holds " + last.size() + " bodies instead of " + writers * bodiesPerWriter);
+        }
+        return failure.get() == null;
+    }
+
+    private Thread startThread(CountDownLatch start, Runnable task) {
+        Thread thread = new Thread(() -> {
+            try {
+                start.await();
+                task.run();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                fail(e.toString());
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * Adds the bodies of one writer, every other batch one body at a time and the rest with <code>addAll</code>.
+     */
+    private void write(int writer, int count) {
+        List<CelestialBody> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < count && failure.get() == null; i++) {
+            CelestialBody body = createBody(writer, i);
+            if ((i / BATCH_SIZE) % 2 == 0) {
+                if (body instanceof Star)
+                    dataManager.addStar((Star) body);
+                else if (body instanceof Planet)
+                    dataManager.addPlanet((Planet) body);
+                else
+                    dataManager.addGalaxy((Galaxy) body);
+            } else {
+                batch.add(body);
+                if (batch.size() == BATCH_SIZE || i == count - 1) {
+                    dataManager.addAll(batch);
+                    batch.clear();
+                }
+            }
+        }
+    }
+
+    private static CelestialBody createBody(int writer, int i) {
+        String name = "W" + writer + " " + Integer.toHexString(i * 0x9E3779B1 + writer);
+        switch (i % 3) {
+            case 0:
+                return new Star(name, 10, 1e30, 5000, "Main Sequence", "Yellow", 1, 1);
+            case 1:
+                return new Planet(name, 10, 6e24, 288, "Terrestrial", "Nitrogen-Oxygen", 1, "Rocky", 6371);
+            default:
+                return new Galaxy(name, 1e6, 1e42, 0, "Spiral", 100_000_000_000L, 100_000, 10);
+        }
+    }
+
+    /**
+     * Keeps checking the current snapshot until the writers are done.
+     */
+    private void read() {
+        long lastVersion = -1;
+        int lastSize = -1;
+        long[] times = new long[1024];
+        int timed = 0;
+        while (writing && failure.get() == null) {
+            CatalogSnapshot snapshot = dataManager.getSnapshot();
+            if (snapshot.getVersion() == lastVersion) {
+                Thread.yield();
+                continue;
+            }
+            if (snapshot.getVersion() < lastVersion || snapshot.size() < lastSize) {
+                fail("version " + snapshot.getVersion() + " with " + snapshot.size() + " bodies was read after version "
+                        + lastVersion + " with " + lastSize);
+                return;
+            }
+            lastVersion = snapshot.getVersion();
+            lastSize = snapshot.size();
+            long start = System.nanoTime();
+            check(snapshot);
+            if (timed == times.length)
+                times = Arrays.copyOf(times, timed * 2);
+            times[timed++] = System.nanoTime() - start;
+        }
+        synchronized (checkTimes) {
+            checkTimes.add(Arrays.copyOf(times, timed));
+        }
+    }
+
+    /**
+     * Returns the time of every check made by the readers, in nanoseconds and sorted.
+     */
+    private long[] getCheckTimes() {
+        long[] all = new long[0];
+        synchronized (checkTimes) {
+            for (long[] times : checkTimes) {
+                int length = all.length;
+                all = Arrays.copyOf(all, length + times.length);
+                System.arraycopy(times, 0, all, length, times.length);
+            }
+        }
+        Arrays.sort(all);
+        return all;
+    }
+
+    private static double percentile(long[] sorted, double fraction) {
+        return sorted[Math.min(sorted.length - 1, (int) (fraction * sorted.length))] / 1e6;
+    }
+
+    /**
+     * Checks that a snapshot agrees with itself, sampling a few bodies of every type.
+     */
+    private void check(CatalogSnapshot snapshot) {
+        if (snapshot.size() != snapshot.getStars().size() + snapshot.getPlanets().size()
+                + snapshot.getGalaxies().size()) {
+            fail("size " + snapshot.size() + " does not match the lists of version " + snapshot.getVersion());
+            return;
+        }
+        checkType(snapshot, snapshot.getStars(), Star.class);
+        checkType(snapshot, snapshot.getPlanets(), Planet.class);
+        checkType(snapshot, snapshot.getGalaxies(), Galaxy.class);
+        checks.incrementAndGet();
+    }
+
+    private <T extends CelestialBody> void checkType(CatalogSnapshot snapshot, List<T> bodies, Class<T> type) {
+        int size = bodies.size();
+        for (int i = 1; i < size; i += Math.max(1, size / 64)) {
+            if (bodies.get(i - 1).compareTo(bodies.get(i)) >= 0) {
+                fail(type.getSimpleName() + " list of version " + snapshot.getVersion() + " is out of order at " + i);
+                return;
+            }
+        }
+        if (size == 0)
+            return;
+
+        T body = bodies.get((int) (checks.get() % size));
+        String name = body.getName();
+        if (snapshot.findCelestialBodyByName(name, type) != body) {
+            fail(name + " is listed in version " + snapshot.getVersion() + " but not found by name");
+            return;
+        }
+        String prefix = name.substring(0, name.length() - 1);
+        List<? extends CelestialBody> byPrefix = type == Star.class ? snapshot.findStarsByPrefix(prefix, SEARCH_LIMIT)
+                : type == Planet.class ? snapshot.findPlanetsByPrefix(prefix, SEARCH_LIMIT)
+                : snapshot.findGalaxiesByPrefix(prefix, SEARCH_LIMIT);
+        // a short name can have more matches than the limit; then the body must sort after the last one returned
+        if (!byPrefix.contains(body) && (byPrefix.size() < SEARCH_LIMIT
+                || byPrefix.get(SEARCH_LIMIT - 1).compareTo(body) > 0)) {
+            fail(name + " is listed in version " + snapshot.getVersion() + " but not found by prefix " + prefix);
+            return;
+        }
+        List<CelestialBody> containing = snapshot.findCelestialBodiesContaining(name.substring(1));
+        if (!containing.contains(body)) {
+            fail(name + " is listed in version " + snapshot.getVersion() + " but not found by contains search");
+            return;
+        }
+        for (CelestialBody found : containing) {
+            if (snapshot.findCelestialBodyByName(found.getName(), found.getClass()) != found) {
+                fail("contains search in version " + snapshot.getVersion() + " returned " + found.getName()
+                        + ", which is not in that version");
+                return;
+            }
+        }
+    }
+
+    private void fail(String message) {
+        failure.compareAndSet(null, message);
+    }
+}
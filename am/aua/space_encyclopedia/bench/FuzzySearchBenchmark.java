@@ -0,0 +1,176 @@
+package am.aua.space_encyclopedia.bench;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import am.aua.space_encyclopedia.core.*;
+import am.aua.space_encyclopedia.data.DataManager;
+
+/**
+ * The <code>FuzzySearchBenchmark</code> class measures the latency of one "did you mean" query,
+ * <code>DataManager.findSimilarCelestialBodies</code>, as the catalog grows.
+ * <p>
+ * For every catalog size it fills an empty <code>DataManager</code> with stars under made-up names and builds the
+ * BK-tree with a first query. Then, for an edit-distance bound of one, two and three, it times queries for copies of
+ * names in the catalog misspelled by that many edits, searched with that bound. It prints the median, 90th and 99th
+ * percentile of the query time next to the time of a plain edit-distance pass over every name, so the growth of
+ * both can be read off side by side. The BK-tree prunes well for one edit and less for three, where a large part of
+ * the names lies within reach of any query.
+ * <p>
+ * The same queries are then timed again with a new star added right before each one, as happens while a catalog is
+ * being loaded or edited, and the median and 99th percentile of those queries are printed too. The add itself is
+ * not timed; any work the query has to do because the catalog just changed is.
+ * <p>
+ * Each set of queries stops after about fifteen seconds once it has at least ten of them, so large catalogs with a
+ * loose bound do not run for hours.
+ * <p>
+ * Run it with <code>java am.aua.space_encyclopedia.bench.FuzzySearchBenchmark [size ...]</code>; without
+ * arguments it uses 1,000, 10,000, 100,000 and 1,000,000 stars.
+ */
+public class FuzzySearchBenchmark {
+    private static final int[] DEFAULT_SIZES = { 1_000, 10_000, 100_000, 1_000_000 };
+    private static final int QUERIES = 2_000;
+    private static final int WARMUP_QUERIES = 200;
+    private static final int MIN_QUERIES = 10;
+    private static final long TIME_BUDGET_NANOS = 15_000_000_000L;
+    private static final int SCAN_QUERIES = 20;
+    private static final int LIMIT = 5;
+    private static final int MAX_EDITS = 3;
+    private static final String[] SYLLABLES = {
+            "al", "be", "ce", "dor", "er", "fa", "gan", "he", "ix", "ju", "ka", "lon", "mi", "nar", "o",
+            "pol", "qua", "ri", "sa", "tau", "ur", "ve", "wo", "xi", "yr", "zen" };
+
+    public static void main(String[] args) {
+        int[] sizes = DEFAULT_SIZES;
+        if (args.length > 0) {
+            sizes = new int[args.length];
+            for (int i = 0; i < args.length; i++)
+                sizes[i] = Integer.parseInt(args[i]);
+        }
+
+        System.out.printf("%10s %6s %12s %12s %12s %18s %18s %14s%n", "bodies", "edits", "p50 (us)", "p90 (us)",
+                "p99 (us)", "after add p50 (us)", "after add p99 (us)", "full scan (us)");
+        for (int size : sizes)
+            run(size);
+    }
+
+    private static void run(int size) {
+        Random random = new Random(size);
+        List<Star> stars = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+            stars.add(new Star(randomName(random) + " " + i, 10, 1e30, 5000, "Main Sequence", "Yellow", 1, 1));
+        DataManager dataManager = new DataManager(false);
+        dataManager.addAll(stars);
+        dataManager.findSimilarCelestialBodies("warm up", LIMIT);
+
+        for (int edits = 1; edits <= MAX_EDITS; edits++) {
+            String[] queries = new String[WARMUP_QUERIES + QUERIES];
+            for (int i = 0; i < queries.length; i++)
+                queries[i] = misspell(stars.get(random.nextInt(size)).getName(), edits, random);
+
+            long[] times = time(dataManager, queries, edits, null);
+            long[] afterAdd = time(dataManager, queries, edits, random);
+            int found = 0;
+            long scanStart = System.nanoTime();
+            for (int i = 0; i < SCAN_QUERIES; i++)
+                found += scan(stars, queries[i], edits);
+            long scanTime = (System.nanoTime() - scanStart) / SCAN_QUERIES;
+
+            System.out.printf("%10d %6d %12.1f %12.1f %12.1f %18.1f %18.1f %14.1f%n", size, edits,
+                    percentile(times, 0.50) / 1e3, percentile(times, 0.90) / 1e3, percentile(times, 0.99) / 1e3,
+                    percentile(afterAdd, 0.50) / 1e3, percentile(afterAdd, 0.99) / 1e3, scanTime / 1e3);
+            if (found == 0)
+                System.out.println("No query found anything");
+        }
+    }
+
+    /**
+     * Times the queries after the warm-up ones. If a random source is given, a new star is added before each query
+     * and the warm-up is skipped, since the same queries have just been run.
+     * @return the sorted query times in nanoseconds
+     */
+    private static long[] time(DataManager dataManager, String[] queries, int edits, Random random) {
+        long[] times = new long[QUERIES];
+        int timed = 0;
+        long setStart = System.nanoTime();
+        for (int i = random == null ? 0 : WARMUP_QUERIES; i < queries.length; i++) {
+            if (random != null)
+                dataManager.addStar(new Star(randomName(random) + " added " + i, 10, 1e30, 5000, "Main Sequence",
+                        "Yellow", 1, 1));
+            long start = System.nanoTime();
+            dataManager.findSimilarCelestialBodies(queries[i], edits, LIMIT);
+            if (i >= WARMUP_QUERIES)
+                times[timed++] = System.nanoTime() - start;
+            if (timed >= MIN_QUERIES && System.nanoTime() - setStart > TIME_BUDGET_NANOS)
+                break;
+        }
+        times = Arrays.copyOf(times, timed);
+        Arrays.sort(times);
+        return times;
+    }
+
+    private static String randomName(Random random) {
+        StringBuilder name = new StringBuilder();
+        int syllables = 2 + random.nextInt(3);
+        for (int i = 0; i < syllables; i++)
+            name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+        return name.toString();
+    }
+
+    /**
+     * Replaces, deletes or doubles characters of a name, at most the given number of times.
+     */
+    private static String misspell(String name, int edits, Random random) {
+        StringBuilder typo = new StringBuilder(name);
+        for (int i = 0; i < edits && typo.length() > 1; i++) {
+            int at = random.nextInt(typo.length());
+            switch (random.nextInt(3)) {
+                case 0:
+                    typo.setCharAt(at, (char) ('a' + random.nextInt(26)));
+                    break;
+                case 1:
+                    typo.deleteCharAt(at);
+                    break;
+                default:
+                    typo.insert(at, typo.charAt(at));
+            }
+        }
+        return typo.toString();
+    }
+
+    /**
+     * Counts the names within the given number of edits of a query by comparing it with every name.
+     */
+    private static int scan(List<Star> stars, String query, int maxDistance) {
+        String key = CelestialBody.normalizeName(query);
+        int count = 0;
+        for (Star star : stars)
+            if (editDistance(key, star.getNameKey()) <= maxDistance)
+                count++;
+        return count;
+    }
+
+    private static int editDistance(String a, String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++)
+            previous[j] = j;
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1], previous[j]) + 1, previous[j - 1] + cost);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    private static double percentile(long[] sorted, double fraction) {
+        return sorted[Math.min(sorted.length - 1, (int) (fraction * sorted.length))];
+    }
+}
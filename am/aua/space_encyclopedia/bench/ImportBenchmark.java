@@ -0,0 +1,94 @@
+package am.aua.space_encyclopedia.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import am.aua.space_encyclopedia.core.*;
+import am.aua.space_encyclopedia.data.CatalogImport;
+import am.aua.space_encyclopedia.data.DataManager;
+
+/**
+ * The <code>ImportBenchmark</code> class measures how many bodies per second a <code>CatalogImport</code> accepts
+ * from 1, 4, 16 and 64 adding threads.
+ * <p>
+ * The bodies are built before the clock starts, so only <code>CatalogImport.add</code> is timed. Every thread adds
+ * its own share of distinct names, all threads start together, and the time runs until the last one is done.
+ * The commit into an empty <code>DataManager</code> is timed separately. Each thread count is run a few times and
+ * the best run is printed, which keeps the JIT and the garbage collector of earlier rounds out of the numbers.
+ * Adds can only scale up to the number of cores, which is printed with the results.
+ * <p>
+ * Run it with <code>java am.aua.space_encyclopedia.bench.ImportBenchmark [bodies]</code>; without an argument it
+ * adds 1,000,000 bodies per run.
+ */
+public class ImportBenchmark {
+    private static final int DEFAULT_BODIES = 1_000_000;
+    private static final int[] THREAD_COUNTS = { 1, 4, 16, 64 };
+    private static final int ROUNDS = 3;
+
+    public static void main(String[] args) throws InterruptedException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_BODIES;
+        List<CelestialBody> bodies = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String name = "Body " + Integer.toHexString(i * 0x9E3779B1) + " " + i;
+            switch (i % 3) {
+                case 0:
+                    bodies.add(new Star(name, 10, 1e30, 5000, "Main Sequence", "Yellow", 1, 1));
+                    break;
+                case 1:
+                    bodies.add(new Planet(name, 10, 6e24, 288, "Terrestrial", "Nitrogen-Oxygen", 1, "Rocky", 6371));
+                    break;
+                default:
+                    bodies.add(new Galaxy(name, 1e6, 1e42, 0, "Spiral", 100_000_000_000L, 100_000, 10));
+            }
+        }
+
+        System.out.println(count + " bodies, " + Runtime.getRuntime().availableProcessors() + " cores");
+        System.out.printf("%8s %16s %12s%n", "threads", "adds per second", "commit (ms)");
+        for (int threads : THREAD_COUNTS) {
+            double bestRate = 0;
+            double bestCommit = Double.MAX_VALUE;
+            for (int round = 0; round < ROUNDS; round++) {
+                DataManager dataManager = new DataManager(false);
+                CatalogImport catalogImport = dataManager.beginImport();
+                long time = addAll(catalogImport, bodies, threads);
+                bestRate = Math.max(bestRate, count / (time / 1e9));
+
+                long start = System.nanoTime();
+                catalogImport.commit();
+                bestCommit = Math.min(bestCommit, (System.nanoTime() - start) / 1e6);
+                if (dataManager.getSnapshot().size() != count)
+                    System.out.println("Lost bodies: " + (count - dataManager.getSnapshot().size()));
+            }
+            System.out.printf("%8d %16.0f %12.1f%n", threads, bestRate, bestCommit);
+        }
+    }
+
+    /**
+     * Adds the bodies from the given number of threads, each taking every n-th body.
+     * @return the time from the start signal until the last thread finished, in nanoseconds
+     */
+    private static long addAll(CatalogImport catalogImport, List<CelestialBody> bodies, int threads)
+            throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            int first = t;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = first; i < bodies.size(); i += threads)
+                        catalogImport.add(bodies.get(i));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+            thread.start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        return System.nanoTime() - begin;
+    }
+}
@@ -0,0 +1,92 @@
+package am.aua.space_encyclopedia.core;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The <code>AttributeDictionary</code> class gives every distinct value of the descriptive text attributes
+ * (type, star color, atmospheric composition and surface conditions) a small integer code.
+ * <p>
+ * These attributes repeat a handful of values such as "Spiral" or "Terrestrial" over the whole catalog,
+ * so celestial bodies keep only the code and decode it when the text is asked for. Every occurrence of a value
+ * then shares one <code>String</code>, and two values are equal exactly when their codes are equal.
+ * <p>
+ * The dictionary is shared by the whole program and only grows. Encoding is thread-safe, so it can be used
+ * by parallel loaders; reading a code back is a plain array access.
+ * <p>
+ * The dictionary contains:
+ * <ul>
+ *   <li><code>codes</code> - A <code>ConcurrentHashMap</code> from each value to its code</li>
+ *   <li><code>values</code> - An array of the values, where the position is the code</li>
+ * </ul>
+ */
+public final class AttributeDictionary {
+    /** The code returned by <code>codeOf</code> for a value that was never encoded. */
+    public static final int NO_CODE = -1;
+
+    private static final ConcurrentHashMap<String, Integer> codes = new ConcurrentHashMap<>();
+    private static volatile String[] values = new String[16];
+    private static int size;
+
+    private AttributeDictionary() {
+    }
+
+    /**
+     * Returns the code of a value, adding the value to the dictionary if it is new.
+     * @param value the value to encode
+     * @return the code of the value
+     * @throws IllegalArgumentException if value is null
+     */
+    public static int encode(String value) {
+        if (value == null)
+            throw new IllegalArgumentException("Value cannot be null");
+        Integer code = codes.get(value);
+        if (code != null)
+            return code;
+        return add(value);
+    }
+
+    /**
+     * Returns the code of a value without adding it.
+     * A value that was never encoded cannot be the value of any celestial body.
+     * @param value the value to look up
+     * @return the code of the value, or <code>NO_CODE</code> if it is not in the dictionary
+     */
+    public static int codeOf(String value) {
+        Integer code = value == null ? null : codes.get(value);
+        return code == null ? NO_CODE : code;
+    }
+
+    /**
+     * Returns the value of a code.
+     * @param code a code returned by <code>encode</code>
+     * @return the value
+     * @throws ArrayIndexOutOfBoundsException if the code was never handed out
+     */
+    public static String decode(int code) {
+        return values[code];
+    }
+
+    /**
+     * Returns the number of values in the dictionary. Every code is smaller than this number.
+     * @return the number of distinct values
+     */
+    public static synchronized int size() {
+        return size;
+    }
+
+    private static synchronized int add(String value) {
+        Integer code = codes.get(value);
+        if (code != null)
+            return code;  // added by another thread in the meantime
+
+        String[] table = values;
+        if (size == table.length)
+            table = Arrays.copyOf(table, size * 2);
+        table[size] = value;
+        // written back even when not grown, so a thread that reads the array sees the new value
+        values = table;
+        codes.put(value, size);
+        return size++;
+    }
+}
@@ -11,7 +11,7 @@ package am.aua.space_encyclopedia.core;
  *   <li><code>distanceFromEarth</code> - A field of type <code>double</code> representing the distance from Earth in light-years.</li>
  *   <li><code>mass</code> - A field of type <code>double</code> representing the mass of the celestial body in kilograms.</li>
  *   <li><code>temperature</code> - A field of type <code>double</code> representing the temperature of the celestial body in Kelvin.</li>
- *   <li><code>type</code> - A field of type <code>String</code> representing the type of the celestial body (e.g., "Star", "Planet").</li>
+ *   <li><code>typeCode</code> - A field of type <code>int</code> holding the <code>AttributeDictionary</code> code of the type of the celestial body (e.g., "Star", "Planet").</li>
  * </ul>
  */
 public abstract class CelestialBody implements Comparable<CelestialBody>{
@@ -23,7 +23,8 @@ public abstract class CelestialBody implements Comparable<CelestialBody>{
     private double distanceFromEarth; 
     private double mass;
     private double temperature;
-    private String type;
+    private int typeCode;
+    private String nameKey;
 
 /**
      * Constructs a new CelestialBody with the given properties.
@@ -48,10 +49,11 @@ public CelestialBody(String name, double distanceFromEarth, double mass, double
         throw new IllegalArgumentException("Type cannot be null or empty.");
 
     this.name = name;
+    this.nameKey = normalizeName(name);
     this.distanceFromEarth = distanceFromEarth;
     this.mass = mass;
     this.temperature = temperature;
-    this.type = type;
+    this.typeCode = AttributeDictionary.encode(type);
 }
 
 /**
@@ -64,11 +66,12 @@ public CelestialBody(CelestialBody other) {
     if (other == null)
         throw new IllegalArgumentException("Cannot copy from a null CelestialBody.");
 
-    this.name = other.name;
-    this.distanceFromEarth = other.distanceFromEarth;
-    this.mass = other.mass;
-    this.temperature = other.temperature;
-    this.type = other.type;
+    this.name = other.getName();
+    this.nameKey = other.getNameKey();
+    this.distanceFromEarth = other.getDistanceFromEarth();
+    this.mass = other.getMass();
+    this.temperature = other.getTemperature();
+    this.typeCode = other.getTypeCode();
 }
     /**
      * Gets the name of this celestial body.
@@ -77,6 +80,38 @@ public CelestialBody(CelestialBody other) {
     public String getName() {
         return name;
     }
+    /**
+     * Gets the case-folded form of the name, which is the same for any two names that are equal ignoring case.
+     * Used for hashing and for name indexes.
+     * @return the normalized name key
+     */
+    public String getNameKey() {
+        return nameKey;
+    }
+    /**
+     * Converts a name into the key used for case-insensitive matching.
+     * Every character is folded the same way <code>String.equalsIgnoreCase</code> compares it,
+     * so two names are equal ignoring case exactly when their keys are equal.
+     * @param name the name to normalize (must not be null)
+     * @return the normalized name key
+     */
+    public static String normalizeName(String name) {
+        int length = name.length();
+        int i = 0;
+        while (i < length && foldCase(name.charAt(i)) == name.charAt(i))
+            i++;
+        if (i == length)
+            return name;  // already folded, no copy needed
+
+        char[] folded = name.toCharArray();
+        for (; i < length; i++)
+            folded[i] = foldCase(folded[i]);
+        return new String(folded);
+    }
+
+    private static char foldCase(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
 /**
 * Gets the distance from Earth.
 *@return how far this body is from Earth, in light years
@@ -103,7 +138,14 @@ public CelestialBody(CelestialBody other) {
    *@return the type of this object (like "Star", "Planet", etc.)
 */
     public String getType() {
-        return type;
+        return AttributeDictionary.decode(getTypeCode());
+    }
+/**
+   * Gets the dictionary code of the type, which is equal for two bodies exactly when their types are equal.
+   *@return the <code>AttributeDictionary</code> code of the type
+*/
+    public int getTypeCode() {
+        return typeCode;
     }
 /**
      * This method must be implemented by any subclass to show extra facts specific to that type of celestial body.
@@ -118,18 +160,16 @@ public CelestialBody(CelestialBody other) {
 */
     @Override
     public String toString() {
-        return String.format(
-                "Name: %s\n" +
-                        "Type: %s\n" +
-                        "Distance from Earth: %.2f light years\n" +
-                        "Mass: %.2e kg\n" +  // Scientific notation for large masses
-                        "Temperature: %.1f K",
-                getName(),
-                getType(),
-                getDistanceFromEarth(),
-                getMass(),
-                getTemperature()
-        );
+        StringBuilder summary = new StringBuilder(160);
+        summary.append("Name: ").append(getName()).append('\n');
+        summary.append("Type: ").append(getType()).append('\n');
+        summary.append("Distance from Earth: ");
+        FastFormat.appendFixed(summary, getDistanceFromEarth(), 2).append(" light years\n");
+        summary.append("Mass: ");
+        FastFormat.appendScientific(summary, getMass(), 2).append(" kg\n");  // Scientific notation for large masses
+        summary.append("Temperature: ");
+        FastFormat.appendFixed(summary, getTemperature(), 1).append(" K");
+        return summary.toString();
     }
     /**
      * Checks if this object is equal to another, based only on their name (case-insensitive).
@@ -142,10 +182,19 @@ public CelestialBody(CelestialBody other) {
             return false;
         else{
             CelestialBody that = (CelestialBody) otherObject;
-            if (this.name == null || that.name == null)
+            if (this.getName() == null || that.getName() == null)
                 return false;
-            return name.equalsIgnoreCase(that.name);  // Name-based equality only
+            return getName().equalsIgnoreCase(that.getName());  // Name-based equality only
         }
+    }
+    /**
+     * Returns a hash code based only on the name (case-insensitive), consistent with <code>equals</code>
+     * in this class and its subclasses. The hash of the normalized name key is cached by <code>String</code>.
+     * @return the hash code of this body
+     */
+    @Override
+    public int hashCode() {
+        return getNameKey().hashCode();
     }
      /**
      * Compares two celestial bodies by their names (case-insensitive). 
@@ -162,7 +211,7 @@ public CelestialBody(CelestialBody other) {
         if (this.getClass() != other.getClass()) {
             throw new IllegalArgumentException("Cannot compare different types of celestial bodies.");
         }
-        return name.compareToIgnoreCase(other.name);
+        return getName().compareToIgnoreCase(other.getName());
     }
          
 }
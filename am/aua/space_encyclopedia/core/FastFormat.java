@@ -0,0 +1,327 @@
+package am.aua.space_encyclopedia.core;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+import java.util.Locale;
+
+/**
+ * The <code>FastFormat</code> class writes numbers exactly like the <code>%.Nf</code>, <code>%.Ne</code>,
+ * <code>%d</code> and <code>%,d</code> conversions of <code>String.format</code>, without parsing a format string
+ * on every call.
+ * <p>
+ * A value that is the double closest to a decimal with no more fraction digits than asked for, which is most of
+ * the values in the catalog, is written from a <code>long</code> without building any digit string.
+ * <p>
+ * Other values are rounded the way <code>String.format</code> does it: half up, on the decimal digits of the
+ * <code>double</code>. Up to JDK 18 those are the digits of <code>Double.toString</code>, and this class rounds
+ * them directly. JDK 19 gave <code>Double.toString</code> a new algorithm (JDK-4511638) whose digits
+ * <code>Formatter</code> may not use, so there these values go to <code>String.format</code>. It is also used when
+ * the dropped digits are so short that the two could round a tie differently, when the value is not finite, or
+ * when the default locale does not write numbers with ASCII digits, a '.' and groups of three separated by ',',
+ * so the output is always identical. Only the first case avoids allocating: the others build the string of
+ * <code>Double.toString</code> or the <code>Formatter</code> of <code>String.format</code>.
+ */
+public final class FastFormat {
+    /** The powers of ten that are exact both as a <code>long</code> and as a <code>double</code>. */
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L,
+            1_000_000_000L, 10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L, 10_000_000_000_000L,
+            100_000_000_000_000L, 1_000_000_000_000_000L
+    };
+    /** Scaled values below this limit have a spacing between doubles of less than half a unit in the last place. */
+    private static final double EXACT_SCALED_LIMIT = 0x1p51;
+    /** Whether <code>Double.toString</code> gives the digits <code>Formatter</code> rounds, as it did up to JDK 18. */
+    private static final boolean TO_STRING_MATCHES_FORMATTER = Runtime.version().feature() <= 18;
+
+    private static volatile LocaleCheck lastCheck = new LocaleCheck(null, false);
+
+    private FastFormat() {
+    }
+
+    /**
+     * Formats a number like <code>String.format("%.Nf", value)</code>.
+     * @param value the number to format
+     * @param precision the number of digits after the decimal point (N)
+     * @return the formatted number
+     */
+    public static String fixed(double value, int precision) {
+        return appendFixed(new StringBuilder(24), value, precision).toString();
+    }
+
+    /**
+     * Formats a number like <code>String.format("%.Ne", value)</code>.
+     * @param value the number to format
+     * @param precision the number of digits after the decimal point (N)
+     * @return the formatted number
+     */
+    public static String scientific(double value, int precision) {
+        return appendScientific(new StringBuilder(16), value, precision).toString();
+    }
+
+    /**
+     * Appends a number formatted like <code>String.format("%.Nf", value)</code>.
+     * @param out the builder to append to
+     * @param value the number to format
+     * @param precision the number of digits after the decimal point (N)
+     * @return the builder
+     * @throws IllegalArgumentException if precision is negative
+     */
+    public static StringBuilder appendFixed(StringBuilder out, double value, int precision) {
+        if (precision < 0)
+            throw new IllegalArgumentException("Precision cannot be negative");
+        if (appendShortFixed(out, value, precision))
+            return out;
+        Digits digits = Digits.of(value, true, precision);
+        if (digits == null)
+            return out.append(String.format("%." + precision + "f", value));
+
+        if (digits.negative)
+            out.append('-');
+        int count = digits.count;
+        int point = digits.point;
+        if (count == 0) {
+            out.append('0');
+            if (precision > 0)
+                out.append('.');
+            for (int i = 0; i < precision; i++)
+                out.append('0');
+        } else if (point <= 0) {
+            out.append('0');
+            if (precision > 0)
+                out.append('.');
+            for (int i = point; i < 0; i++)
+                out.append('0');
+            out.append(digits.buffer, digits.start, count);
+        } else {
+            out.append(digits.buffer, digits.start, point);
+            if (precision > 0)
+                out.append('.').append(digits.buffer, digits.start + point, count - point);
+        }
+        return out;
+    }
+
+    /**
+     * Appends a value that is the double closest to a decimal with at most <code>precision</code> fraction
+     * digits, such as 5778.0 or 13.51, which is most of the values in the catalog.
+     * <p>
+     * Such a value is found by scaling it to a whole number and checking that dividing back gives the same double.
+     * Below <code>EXACT_SCALED_LIMIT</code> the doubles are so close together that the decimal digits of the value,
+     * rounded to <code>precision</code> places, are exactly that whole number, so no other digits are needed.
+     * @return true if the value was appended, false if it needs the general conversion
+     */
+    private static boolean appendShortFixed(StringBuilder out, double value, int precision) {
+        if (precision >= POWERS_OF_TEN.length)
+            return false;
+        long power = POWERS_OF_TEN[precision];
+        double scaled = Math.abs(value) * power;
+        if (!(scaled < EXACT_SCALED_LIMIT) || !usesPlainDigits())
+            return false;  // also rules out NaN
+        long whole = Math.round(scaled);
+        if (whole / (double) power != Math.abs(value))
+            return false;
+
+        if (Double.compare(value, 0.0) < 0)
+            out.append('-');
+        out.append(whole / power);
+        if (precision > 0) {
+            out.append('.');
+            long fraction = whole % power;
+            for (long limit = power / 10; limit > fraction && limit > 1; limit /= 10)
+                out.append('0');
+            out.append(fraction);
+        }
+        return true;
+    }
+
+    /**
+     * Appends a number formatted like <code>String.format("%.Ne", value)</code>.
+     * @param out the builder to append to
+     * @param value the number to format
+     * @param precision the number of digits after the decimal point (N)
+     * @return the builder
+     * @throws IllegalArgumentException if precision is negative
+     */
+    public static StringBuilder appendScientific(StringBuilder out, double value, int precision) {
+        if (precision < 0)
+            throw new IllegalArgumentException("Precision cannot be negative");
+        Digits digits = Digits.of(value, false, precision);
+        if (digits == null)
+            return out.append(String.format("%." + precision + "e", value));
+
+        if (digits.negative)
+            out.append('-');
+        int exponent;
+        if (digits.count == 0) {
+            out.append('0');
+            if (precision > 0)
+                out.append('.');
+            for (int i = 0; i < precision; i++)
+                out.append('0');
+            exponent = 0;
+        } else {
+            out.append(digits.buffer[digits.start]);
+            if (precision > 0)
+                out.append('.').append(digits.buffer, digits.start + 1, precision);
+            exponent = digits.point - 1;
+        }
+        out.append(exponent < 0 ? "e-" : "e+");
+        int magnitude = Math.abs(exponent);
+        if (magnitude < 10)
+            out.append('0');
+        return out.append(magnitude);
+    }
+
+    /**
+     * Appends a whole number formatted like <code>String.format("%d", value)</code>.
+     * @param out the builder to append to
+     * @param value the number to format
+     * @return the builder
+     */
+    public static StringBuilder appendInteger(StringBuilder out, long value) {
+        if (!usesPlainDigits())
+            return out.append(String.format("%d", value));
+        return out.append(value);
+    }
+
+    /**
+     * Appends a whole number with thousands separators, formatted like <code>String.format("%,d", value)</code>.
+     * @param out the builder to append to
+     * @param value the number to format
+     * @return the builder
+     */
+    public static StringBuilder appendGrouped(StringBuilder out, long value) {
+        if (!usesPlainDigits() || value == Long.MIN_VALUE)
+            return out.append(String.format("%,d", value));
+
+        if (value < 0) {
+            out.append('-');
+            value = -value;
+        }
+        String digits = Long.toString(value);
+        int head = digits.length() % 3;
+        if (head == 0)
+            head = 3;
+        out.append(digits, 0, head);
+        for (int i = head; i < digits.length(); i += 3)
+            out.append(',').append(digits, i, i + 3);
+        return out;
+    }
+
+    /**
+     * Checks whether the default formatting locale writes numbers the way this class does.
+     * The answer is remembered for the last locale seen.
+     */
+    private static boolean usesPlainDigits() {
+        Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+        LocaleCheck check = lastCheck;
+        if (check.locale != locale) {
+            DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+            NumberFormat grouping = NumberFormat.getIntegerInstance(locale);
+            boolean plain = symbols.getZeroDigit() == '0' && symbols.getDecimalSeparator() == '.'
+                    && symbols.getMinusSign() == '-' && symbols.getGroupingSeparator() == ','
+                    && grouping instanceof DecimalFormat && ((DecimalFormat) grouping).getGroupingSize() == 3;
+            check = new LocaleCheck(locale, plain);
+            lastCheck = check;
+        }
+        return check.plain;
+    }
+
+    /**
+     * Whether a locale writes numbers the way this class does.
+     */
+    private static class LocaleCheck {
+        final Locale locale;
+        final boolean plain;
+
+        LocaleCheck(Locale locale, boolean plain) {
+            this.locale = locale;
+            this.plain = plain;
+        }
+    }
+
+    /**
+     * The rounded decimal digits of a number: <code>count</code> digits starting at <code>start</code>
+     * in <code>buffer</code>, with <code>point</code> of them before the decimal point.
+     */
+    private static class Digits {
+        boolean negative;
+        char[] buffer;
+        int start;
+        int count;
+        int point;
+
+        /**
+         * Rounds the shortest digits of a value half up, keeping the given number of digits after the point
+         * (fixed) or after the first digit (scientific).
+         * @return the digits, or null if <code>String.format</code> has to be used instead
+         */
+        static Digits of(double value, boolean fixed, int precision) {
+            if (!TO_STRING_MATCHES_FORMATTER || Double.isNaN(value) || Double.isInfinite(value) || !usesPlainDigits())
+                return null;
+
+            String text = Double.toString(Math.abs(value));
+            int exponentAt = text.indexOf('E');
+            int end = exponentAt < 0 ? text.length() : exponentAt;
+            int exponent = exponentAt < 0 ? 0 : Integer.parseInt(text.substring(exponentAt + 1));
+
+            // collect the significant digits, without leading and trailing zeros
+            char[] significant = new char[end];
+            int length = 0;
+            int point = 0;
+            boolean seenPoint = false;
+            for (int i = 0; i < end; i++) {
+                char c = text.charAt(i);
+                if (c == '.') {
+                    seenPoint = true;
+                } else if (length == 0 && c == '0') {
+                    if (seenPoint)
+                        point--;
+                } else {
+                    significant[length++] = c;
+                    if (!seenPoint)
+                        point++;
+                }
+            }
+            while (length > 0 && significant[length - 1] == '0')
+                length--;
+            point = length == 0 ? 0 : point + exponent;
+
+            int keep = length == 0 ? 0 : (fixed ? point + precision : 1 + precision);
+            int dropped = length - keep;
+            if (dropped > 0 && dropped <= 2 && keep >= 0) {
+                char first = significant[keep];
+                if (first == '4' || first == '5')
+                    return null;  // close to a tie, where String.format may see other digits
+            }
+
+            Digits digits = new Digits();
+            digits.negative = Double.compare(value, 0.0) < 0;
+            int kept = Math.max(keep, 0);
+            char[] buffer = new char[kept + 1];
+            for (int i = 0; i < kept; i++)
+                buffer[i + 1] = i < length ? significant[i] : '0';
+            int start = 1;
+            if (keep >= 0 && keep < length && significant[keep] >= '5') {
+                int i = kept;
+                while (i > 0 && buffer[i] == '9')
+                    buffer[i--] = '0';
+                if (i > 0) {
+                    buffer[i]++;
+                } else {
+                    buffer[0] = '1';
+                    start = 0;
+                    point++;
+                }
+            }
+            int count = kept + 1 - start;
+            if (!fixed && start == 0)
+                count--;  // a carry adds a digit in front; scientific keeps the same number of digits
+            digits.buffer = buffer;
+            digits.start = start;
+            digits.count = count;
+            digits.point = point;
+            return digits;
+        }
+    }
+}
@@ -11,6 +11,8 @@ import java.util.ArrayList;
  *   <li><code>numberOfStars</code> - Estimated number of stars in the galaxy</li>
  *   <li><code>diameter</code> - Diameter of the galaxy in light-years</li>
  *   <li><code>age</code> - Age of the galaxy in billions of years</li>
+ *   <li><code>starDensity</code> - Stars per cubic light-year, computed once when the galaxy is constructed</li>
+ *   <li><code>escapeVelocity</code> - Escape velocity at the edge in m/s, computed once when the galaxy is constructed</li>
  * </ul>
  */
 
@@ -23,6 +25,8 @@ public class Galaxy extends CelestialBody {
     private long numberOfStars;
     private double diameter;
     private double age;
+    private double starDensity;
+    private double escapeVelocity;
 
 /**
      * Constructs a new Galaxy with all necessary physical and descriptive attributes.
@@ -34,7 +38,8 @@ public class Galaxy extends CelestialBody {
      * @param numberOfStars  approximate number of stars
      * @param diameter  diameter in light-years
      * @param age  age in billions of years
-     * @throws IllegalArgumentException if any value is invalid (e.g., negative age or zero diameter)
+     * @throws IllegalArgumentException if any value is invalid (e.g., negative age, or a diameter so small
+     *         that the volume of the galaxy is zero)
 */
     public Galaxy(String name, double distanceFromEarth, double mass, double temperature, String type,
               long numberOfStars, double diameter, double age) {
@@ -50,7 +55,12 @@ public class Galaxy extends CelestialBody {
         this.numberOfStars = numberOfStars;
         this.diameter = diameter;
         this.age = age;
-    
+        try {
+            this.starDensity = starDensityOf(numberOfStars, diameter);
+            this.escapeVelocity = escapeVelocityOf(mass, diameter);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
     }
 
 /**
@@ -63,9 +73,11 @@ public class Galaxy extends CelestialBody {
         super(other.getName(), other.getDistanceFromEarth(), other.getMass(), other.getTemperature(), other.getType());
         if (other == null)
             throw new NullPointerException("Cannot copy from a null Galaxy.");
-        this.numberOfStars = other.numberOfStars;
-        this.diameter = other.diameter;
-        this.age = other.age;
+        this.numberOfStars = other.getNumberOfStars();
+        this.diameter = other.getDiameter();
+        this.age = other.getAge();
+        this.starDensity = other.estimateStarDensity();
+        this.escapeVelocity = other.calculateEscapeVelocity();
 }
    
 /**
@@ -96,16 +108,14 @@ public class Galaxy extends CelestialBody {
 */
     @Override
     public String toString() {
-        return String.format(
-                        "%s\n" +
-                        "Diameter: %.2f light-years\n" +
-                        "Number of Stars: %,d\n" +
-                        "Age: %.2f billion years\n",
-                super.toString(),
-                diameter,
-                numberOfStars,
-                age
-        );
+        StringBuilder summary = new StringBuilder(super.toString());
+        summary.append("\nDiameter: ");
+        FastFormat.appendFixed(summary, getDiameter(), 2).append(" light-years\n");
+        summary.append("Number of Stars: ");
+        FastFormat.appendGrouped(summary, getNumberOfStars()).append('\n');
+        summary.append("Age: ");
+        FastFormat.appendFixed(summary, getAge(), 2).append(" billion years\n");
+        return summary.toString();
 
     }
 
@@ -118,7 +128,7 @@ public class Galaxy extends CelestialBody {
     public boolean equals(Object otherObject){
         if (otherObject == null)
             return false;
-        else if (getClass() != otherObject.getClass())
+        else if (!(otherObject instanceof Galaxy))
             return false;
         else {
             Galaxy otherGalaxy = (Galaxy) otherObject;
@@ -126,13 +136,22 @@ public class Galaxy extends CelestialBody {
         }
     }
 /**
-     * Estimates how densely stars are packed in this galaxy.
-     * Calculation assumes a spherical volume.
+     * Gets the estimated density of stars in this galaxy.
      * @return stars per cubic light-year
-     * @throws ArithmeticException  if the galaxy volume is zero or invalid
 */
     
     public double estimateStarDensity() {
+        return starDensity;
+    }
+/**
+     * Estimates how densely stars are packed in a galaxy.
+     * Calculation assumes a spherical volume.
+     * @param numberOfStars the number of stars
+     * @param diameter the diameter in light-years
+     * @return stars per cubic light-year
+     * @throws ArithmeticException  if the galaxy volume is zero or invalid
+*/
+    protected static double starDensityOf(long numberOfStars, double diameter) {
         double radiusLY = diameter / 2.0; // diameter in light-years
         double volume = (4.0 / 3.0) * Math.PI * Math.pow(radiusLY, 3); // in cubic light-years
         if (volume <= 0)
@@ -140,18 +159,27 @@ public class Galaxy extends CelestialBody {
         return numberOfStars / volume;
     }
 /**
-     * Calculates the escape velocity at the edge of the galaxy.
-     * Uses classical mechanics (v = sqrt(2GM/R)).
+     * Gets the escape velocity at the edge of the galaxy.
      * @return escape velocity in meters per second
-     * @throws ArithmeticException  if the radius is zero or negative
 */
     
    public double calculateEscapeVelocity() {
+    return escapeVelocity;
+}
+/**
+     * Calculates the escape velocity at the edge of a galaxy.
+     * Uses classical mechanics (v = sqrt(2GM/R)).
+     * @param mass the mass in kilograms
+     * @param diameter the diameter in light-years
+     * @return escape velocity in meters per second
+     * @throws ArithmeticException  if the radius is zero or negative
+*/
+   protected static double escapeVelocityOf(double mass, double diameter) {
     double radiusMeters = (diameter * LIGHT_YEAR_IN_METERS) / 2;
     if (radiusMeters <= 0)
         throw new ArithmeticException("Diameter must be greater than zero to calculate escape velocity.");
 
-    return Math.sqrt((2 * G * getMass()) / radiusMeters);
+    return Math.sqrt((2 * G * mass) / radiusMeters);
 }
 /**
      * Returns additional interesting facts about the galaxy.
@@ -165,8 +193,10 @@ public class Galaxy extends CelestialBody {
 
         facts.append("\nMORE GALACTIC FACTS:\n");
         facts.append("\n- ").append(getName()).append(" is a fascinating galaxy!\n");
-        facts.append(String.format("- Estimated Star Density: %.6f stars per cubic light-year\n", estimateStarDensity()));
-        facts.append(String.format("- Escape Velocity (at edge): %.2f m/s\n", calculateEscapeVelocity()));
+        facts.append("- Estimated Star Density: ");
+        FastFormat.appendFixed(facts, estimateStarDensity(), 6).append(" stars per cubic light-year\n");
+        facts.append("- Escape Velocity (at edge): ");
+        FastFormat.appendFixed(facts, calculateEscapeVelocity(), 2).append(" m/s\n");
 
         return facts.toString();
     }
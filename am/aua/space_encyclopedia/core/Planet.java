@@ -7,18 +7,20 @@ package am.aua.space_encyclopedia.core;
  * <p>
  * An object of type <code>Planet</code> contains:
  * <ul>
- *   <li><code>atmosphericComposition</code> - Composition of the planet's atmosphere (e.g.,"Nitrogen-Oxygen")</li>
+ *   <li><code>atmosphereCode</code> - <code>AttributeDictionary</code> code of the composition of the planet's atmosphere (e.g.,"Nitrogen-Oxygen")</li>
  *   <li><code>numberOfMoons</code> - Number of natural satellites</li>
- *   <li><code>surfaceConditions</code> - Description of surface (e.g., "Rocky", "Gaseous")</li>
+ *   <li><code>surfaceCode</code> - <code>AttributeDictionary</code> code of the description of surface (e.g., "Rocky", "Gaseous")</li>
  *   <li><code>radius</code> - Planetary radius in meters </li>
+ *   <li><code>surfaceGravity</code> - Surface gravity in m/s^2, computed once when the planet is constructed</li>
  * </ul>
  */
 
 public class Planet extends CelestialBody{
-  private String atmosphericComposition;
+  private int atmosphereCode;
   private int numberOfMoons;
-  private String surfaceConditions;
+  private int surfaceCode;
   private double radius;//in meters
+  private double surfaceGravity;
 
   /**
      *Constructs a new Planet with detailed physical and descriptive information.
@@ -47,10 +49,11 @@ public class Planet extends CelestialBody{
     if (radius <= 0)
         throw new IllegalArgumentException("Radius must be a positive value.");
 
-    this.atmosphericComposition = atmosphericComposition;
+    this.atmosphereCode = AttributeDictionary.encode(atmosphericComposition);
     this.numberOfMoons = numberOfMoons;
-    this.surfaceConditions = surfaceConditions;
+    this.surfaceCode = AttributeDictionary.encode(surfaceConditions);
     this.radius = radius;
+    this.surfaceGravity = surfaceGravityOf(mass, radius);
 }
 
 /**
@@ -65,17 +68,25 @@ public class Planet extends CelestialBody{
     if (other == null)
         throw new NullPointerException("Cannot copy from a null Planet.");
 
-    this.atmosphericComposition = other.atmosphericComposition;
-    this.numberOfMoons = other.numberOfMoons;
-    this.surfaceConditions = other.surfaceConditions;
-    this.radius = other.radius;
+    this.atmosphereCode = other.getAtmosphereCode();
+    this.numberOfMoons = other.getNumberOfMoons();
+    this.surfaceCode = other.getSurfaceCode();
+    this.radius = other.getRadius();
+    this.surfaceGravity = other.calculateSurfaceGravity();
 }
 /**
      * Gets the planet's atmospheric composition.
      *@return the planet's atmospheric composition 
 */
   public String getAtmosphericComposition() {
-    return atmosphericComposition;
+    return AttributeDictionary.decode(getAtmosphereCode());
+  }
+/**
+     * Gets the dictionary code of the atmospheric composition.
+     *@return the <code>AttributeDictionary</code> code of the atmospheric composition
+*/
+  public int getAtmosphereCode() {
+    return atmosphereCode;
   }
 /** 
     * Gets the number of natural satellites (moons).
@@ -89,7 +100,14 @@ public class Planet extends CelestialBody{
    *@return description of the planet’s surface conditions 
 */
   public String getSurfaceConditions() {
-    return surfaceConditions;
+    return AttributeDictionary.decode(getSurfaceCode());
+  }
+/**
+   *Gets the dictionary code of the surface conditions.
+   *@return the <code>AttributeDictionary</code> code of the surface conditions
+*/
+  public int getSurfaceCode() {
+    return surfaceCode;
   }
 /**
    * Gets the planet's radius.
@@ -104,18 +122,14 @@ public class Planet extends CelestialBody{
      */
   @Override
   public String toString() {
-    return String.format(
-            "%s\n" +
-                    "Radius: %.1f km\n" +
-                    "Atmosphere: %s\n" +
-                    "Moons: %d\n" +
-                    "Surface Conditions: %s",
-            super.toString(),
-            radius / 1000, // converts from m to km
-            atmosphericComposition,
-            numberOfMoons,
-            surfaceConditions
-    );
+    StringBuilder summary = new StringBuilder(super.toString());
+    summary.append("\nRadius: ");
+    FastFormat.appendFixed(summary, getRadius() / 1000, 1).append(" km\n"); // converts from m to km
+    summary.append("Atmosphere: ").append(getAtmosphericComposition()).append('\n');
+    summary.append("Moons: ");
+    FastFormat.appendInteger(summary, getNumberOfMoons()).append('\n');
+    summary.append("Surface Conditions: ").append(getSurfaceConditions());
+    return summary.toString();
   }
   /**
      *Compares two planets by their names (case-insensitive).
@@ -126,7 +140,7 @@ public class Planet extends CelestialBody{
   public boolean equals(Object otherObject){
     if (otherObject == null)
       return false;
-    else if (getClass() != otherObject.getClass())
+    else if (!(otherObject instanceof Planet))
       return false;
     else {
       Planet otherPlanet = (Planet) otherObject;
@@ -144,29 +158,40 @@ public class Planet extends CelestialBody{
     facts.append("\nMORE PLANETARY FACTS:\n");
     facts.append("- ").append(getName()).append(" is a fascinating world!\n");
     facts.append("\nPHYSICAL CHARACTERISTICS:\n");
-    facts.append(String.format("- Surface Gravity: %.2f m/s²\n", calculateSurfaceGravity()));
+    facts.append("- Surface Gravity: ");
+    FastFormat.appendFixed(facts, calculateSurfaceGravity(), 2).append(" m/s²\n");
     facts.append("\nSATELLITE SYSTEM:\n");
-    facts.append("- Number of Moons: ").append(numberOfMoons).append("\n");
+    facts.append("- Number of Moons: ").append(getNumberOfMoons()).append("\n");
     facts.append("- Moon Category: ").append(moonCategory()).append("\n");
 
     return facts.toString();
   }
   /**
-     * Calculates the surface gravity based on the planet’s mass and radius.
+     * Gets the surface gravity computed from the planet’s mass and radius.
+     * @return surface gravity in m/s^2
+     */
+  public double calculateSurfaceGravity() {
+    return surfaceGravity;
+  }
+  /**
+     * Calculates the surface gravity from a mass and a radius.
      * Uses the formula: g = G * mass / radius^2
+     * @param mass the mass in kilograms
+     * @param radius the radius in meters
      * @return surface gravity in m/s^2
      * @throws ArithmeticException  if radius is zero or negative
      */
-  public double calculateSurfaceGravity() {
+  protected static double surfaceGravityOf(double mass, double radius) {
     if (radius <= 0)
         throw new ArithmeticException("Radius must be positive to calculate surface gravity.");
-    return (G * getMass()) / (radius * radius);
+    return (G * mass) / (radius * radius);
 }
    /**
       * Categorizes the planet based on its number of moons.
       * @return a descriptive label (e.g., "Few Moons", "Satellite Swarm")
      */
    public String moonCategory() {
+     int numberOfMoons = getNumberOfMoons();
      if (numberOfMoons == 0) 
        return "Moonless";
      else if (numberOfMoons <= 2) 
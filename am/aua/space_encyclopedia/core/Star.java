@@ -6,10 +6,15 @@ package am.aua.space_encyclopedia.core;
  * <p>
  * An object of type <code>Star</code> contains:
  * <ul>
- *   <li><code>color</code> - A field of type <code>String</code> representing the visual color of the star.</li>
+ *   <li><code>colorCode</code> - A field of type <code>int</code> holding the <code>AttributeDictionary</code> code of the visual color of the star.</li>
  *   <li><code>luminosity</code> - A field of type <code>double</code> representing the luminosity of the star relative to the Sun.</li>
  *   <li><code>size</code> - A field of type <code>double</code> representing the size of the star relative to the Sun.</li>
+ *   <li><code>spectralClassCode</code> - The <code>AttributeDictionary</code> code of the classification of the star, computed once.</li>
+ *   <li><code>absoluteMagnitude</code> - The absolute magnitude of the star, computed once.</li>
+ *   <li><code>mainSequenceLifespan</code> - The main sequence lifespan in billion years, computed once.</li>
  * </ul>
+ * The derived values are computed when the star is constructed, which the loader does in parallel,
+ * so classifying, filtering and sorting on them costs no more than on the stored values.
  */
 public class Star extends CelestialBody {
       /** The mass of the Sun in kilograms. */
@@ -18,9 +23,12 @@ public class Star extends CelestialBody {
       public static final double SUN_ABSOLUTE_MAGNITUDE = 4.83; 
       /** The expected lifespan of the Sun in billion years.*/
       public static final double SUN_LIFESPAN = 10; 
-      private String color;
+      private int colorCode;
       private double luminosity;  //relative to the Sun
       private double size;       //relative to the Sun
+      private int spectralClassCode;
+      private double absoluteMagnitude;
+      private double mainSequenceLifespan;
  /**
      * Constructs a new Star object with specified properties.
      * @param name  the name of the star
@@ -44,9 +52,12 @@ public class Star extends CelestialBody {
           if (size <= 0)
               throw new IllegalArgumentException("Size must be a positive value.");
       
-          this.color = color;
+          this.colorCode = AttributeDictionary.encode(color);
           this.luminosity = luminosity;
           this.size = size;
+          this.spectralClassCode = AttributeDictionary.encode(spectralClassOf(temperature, luminosity));
+          this.absoluteMagnitude = absoluteMagnitudeOf(luminosity);
+          this.mainSequenceLifespan = mainSequenceLifespanOf(mass);
       }
  /**
      * Copy constructor for a Star object.
@@ -58,16 +69,26 @@ public class Star extends CelestialBody {
           super(other.getName(), other.getDistanceFromEarth(), other.getMass(), other.getTemperature(), other.getType());
           if (other == null)
               throw new NullPointerException("Cannot copy from a null Star.");
-          this.color = other.color;
-          this.luminosity = other.luminosity;
-          this.size = other.size;
+          this.colorCode = other.getColorCode();
+          this.luminosity = other.getLuminosity();
+          this.size = other.getSize();
+          this.spectralClassCode = other.getSpectralClassCode();
+          this.absoluteMagnitude = other.calculateAbsoluteMagnitude();
+          this.mainSequenceLifespan = other.estimateMainSequenceLifespan();
       }
 /**
      *Gets the visual color classification of the star.
      *@return the color of the star
 */
       public String getColor() {
-            return color;
+            return AttributeDictionary.decode(getColorCode());
+      }
+/**
+     *Gets the dictionary code of the color, which is equal for two stars exactly when their colors are equal.
+     *@return the <code>AttributeDictionary</code> code of the color
+*/
+      public int getColorCode() {
+            return colorCode;
       }
 /**
       * Gets the star's luminosity relative to our Sun.
@@ -89,16 +110,13 @@ public class Star extends CelestialBody {
 */
       @Override
       public String toString() {
-            return String.format(
-                  "%s\n" +
-                  "Color: %s\n" +
-                  "Luminosity: %.2f solar unites\n" +
-                  "Size: %.2f solar radii\n",
-                  super.toString(),
-                  color,
-                  luminosity,
-                  size
-            );
+            StringBuilder summary = new StringBuilder(super.toString());
+            summary.append("\nColor: ").append(getColor()).append('\n');
+            summary.append("Luminosity: ");
+            FastFormat.appendFixed(summary, getLuminosity(), 2).append(" solar unites\n");
+            summary.append("Size: ");
+            FastFormat.appendFixed(summary, getSize(), 2).append(" solar radii\n");
+            return summary.toString();
       }
 /**
      * Checks if this star is equal to another object by name (case-insensitive).
@@ -109,7 +127,7 @@ public class Star extends CelestialBody {
       public boolean equals(Object otherObject){
             if (otherObject == null)
                   return false;
-            else if (getClass() != otherObject.getClass())
+            else if (!(otherObject instanceof Star))
                   return false;
             else {
                   Star otherStar = (Star) otherObject;
@@ -126,11 +144,12 @@ public class Star extends CelestialBody {
               facts.append("\n- ").append(getName()).append(" is a shining body in space!\n");
               facts.append("\nSTELLAR AND PHYSICAL CLASSIFICATION:\n");
               facts.append("- Spectral Type: ").append(classifyStar());
-              facts.append(String.format("\n- Absolute Magnitude: %.2f\n", calculateAbsoluteMagnitude()));
+              facts.append("\n- Absolute Magnitude: ");
+              FastFormat.appendFixed(facts, calculateAbsoluteMagnitude(), 2).append('\n');
               facts.append("\nLIFECYCLE INFORMATION:\n");
               facts.append("- Current Stage: ").append(calculateLifeStage());
-              facts.append(String.format("\n- Main Sequence Lifespan: %.1f billion years\n",
-                      estimateMainSequenceLifespan()));
+              facts.append("\n- Main Sequence Lifespan: ");
+              FastFormat.appendFixed(facts, estimateMainSequenceLifespan(), 1).append(" billion years\n");
              
               return facts.toString();
        }
@@ -139,23 +158,39 @@ public class Star extends CelestialBody {
      * @return a string representing the spectral type and luminosity class
 */
       public String classifyStar() {
+            return AttributeDictionary.decode(getSpectralClassCode());
+      }
+/**
+     * Gets the dictionary code of the classification returned by <code>classifyStar</code>.
+     * @return the <code>AttributeDictionary</code> code of the spectral type and luminosity class
+*/
+      public int getSpectralClassCode() {
+            return spectralClassCode;
+      }
+/**
+     * Computes the spectral type and luminosity class of a star.
+     * @param temperature the surface temperature in Kelvin
+     * @param luminosity the luminosity relative to the Sun
+     * @return a string representing the spectral type and luminosity class
+*/
+      protected static String spectralClassOf(double temperature, double luminosity) {
             String spectralType;
 
-            if (getTemperature() > 30000)
+            if (temperature > 30000)
                   spectralType = "O";
-            else if (getTemperature() > 10000)
+            else if (temperature > 10000)
                   spectralType = "B";
-            else if (getTemperature() > 7500)
+            else if (temperature > 7500)
                   spectralType = "A";
-            else if (getTemperature() > 6000)
+            else if (temperature > 6000)
                   spectralType = "F";
-            else if (getTemperature() > 5200)
+            else if (temperature > 5200)
                   spectralType = "G";
-             else if (getTemperature() > 3700)
+             else if (temperature > 3700)
                   spectralType = "K";
             else
                   spectralType = "M";
-            return spectralType + classifyLuminosity();
+            return spectralType + luminosityClassOf(luminosity);
       }
 
 /**
@@ -163,6 +198,14 @@ public class Star extends CelestialBody {
      * @return a string representing the luminosity class
 */
      public String classifyLuminosity() {
+        return luminosityClassOf(getLuminosity());
+     }
+/**
+     * Computes the luminosity class of a star.
+     * @param luminosity the luminosity relative to the Sun
+     * @return a string representing the luminosity class
+*/
+     protected static String luminosityClassOf(double luminosity) {
         if (luminosity >= 30000)
             return "I (Supergiant)";
         else if (luminosity >= 1000)
@@ -193,22 +236,37 @@ public class Star extends CelestialBody {
             return "High-Mass Main Sequence Star";
      }
 /**
-     * Calculates the absolute magnitude using the star's luminosity.
+     * Gets the absolute magnitude computed from the star's luminosity.
      * @return the absolute magnitude of the star
-     * @throws IllegalArgumentException - if luminosity is not positive
 */
      public double calculateAbsoluteMagnitude() {
+        return absoluteMagnitude;
+     }
+/**
+     * Calculates the absolute magnitude from a luminosity.
+     * @param luminosity the luminosity relative to the Sun
+     * @return the absolute magnitude
+     * @throws IllegalArgumentException - if luminosity is not positive
+*/
+     protected static double absoluteMagnitudeOf(double luminosity) {
         if (luminosity <= 0) {
             throw new IllegalArgumentException("Luminosity must be greater than zero to calculate magnitude.");
         }
         return SUN_ABSOLUTE_MAGNITUDE - 2.5 * Math.log10(luminosity);
      }
 /**
-     * Estimates the duration the star will spend on the main sequence.
+     * Gets the estimated duration the star will spend on the main sequence.
      * @return the lifespan in billion years
 */
     public double estimateMainSequenceLifespan() {
-        double massInKg = getMass(); // getMass() must return kg
+        return mainSequenceLifespan;
+    }
+/**
+     * Estimates the main sequence lifespan of a star from its mass.
+     * @param massInKg the mass of the star in kilograms
+     * @return the lifespan in billion years
+*/
+    protected static double mainSequenceLifespanOf(double massInKg) {
         double massRatio = massInKg / SUN_MASS_KG;
 
         return SUN_LIFESPAN * Math.pow(massRatio, -2.5);
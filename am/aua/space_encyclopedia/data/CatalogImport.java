@@ -0,0 +1,141 @@
+package am.aua.space_encyclopedia.data;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import am.aua.space_encyclopedia.core.*;
+
+/**
+ * The <code>CatalogImport</code> class collects celestial bodies added by many threads at once and adds them
+ * to a <code>DataManager</code> in one step.
+ * <p>
+ * Each type of body goes into a <code>ConcurrentSkipListMap</code> keyed by the normalized name, so threads adding
+ * different names never wait for each other, and the bodies are always available in sorted order. When two threads
+ * add a body of the same type and name, the one that gets there first is kept.
+ * <p>
+ * <code>commit</code> merges everything into the catalog with <code>DataManager.addAll</code>, so readers see the
+ * whole import appear in a single new snapshot, and bodies already in the catalog keep their place. The import
+ * cannot be used after the commit.
+ * <p>
+ * An add that overlaps a commit either finishes first and is part of it, or fails; it is never reported as added and
+ * then lost. For that, every add counts itself as running on a counter of its own stripe, then checks that the
+ * import is not committed, and <code>commit</code> first marks the import committed and then waits until no add is
+ * running. The stripe is chosen by thread, so adding threads do not write to the same counter or cache line, and
+ * a thread always counts itself in and out on the same stripe, so no stripe drops to zero while one of its adds
+ * is running.
+ * <p>
+ * An object of type <code>CatalogImport</code> contains:
+ * <ul>
+ *   <li><code>dataManager</code> - The <code>DataManager</code> the bodies are committed to</li>
+ *   <li>Fields of type <code>ConcurrentSkipListMap</code> from name key to body, for <code>stars</code>,
+ *       <code>planets</code> and <code>galaxies</code></li>
+ *   <li><code>committed</code> - Whether the commit has started</li>
+ *   <li><code>runningAdds</code> - The number of adds running, one counter per stripe, each on its own cache line</li>
+ * </ul>
+ */
+public class CatalogImport {
+    private static final int STRIPES = 64;
+    /** The distance between two counters, in longs, so that each counter has a cache line to itself. */
+    private static final int STRIPE_SPACING = 8;
+
+    private final DataManager dataManager;
+    private final ConcurrentSkipListMap<String, Star> stars = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<String, Planet> planets = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<String, Galaxy> galaxies = new ConcurrentSkipListMap<>();
+    private final AtomicBoolean committed = new AtomicBoolean();
+    private final AtomicLongArray runningAdds = new AtomicLongArray(STRIPES * STRIPE_SPACING);
+
+    /**
+     * Constructs an empty import into the given data manager.
+     * @param dataManager the data manager to commit to
+     */
+    CatalogImport(DataManager dataManager) {
+        this.dataManager = dataManager;
+    }
+
+    /**
+     * Adds a body to the import. Safe to call from any number of threads at once.
+     * @param body the body to add
+     * @return true if the body was added, false if the import already has a body of that type and name
+     * @throws IllegalArgumentException if body is null
+     * @throws IllegalStateException if the import was already committed, or the commit started first
+     */
+    public boolean add(CelestialBody body) {
+        if (body == null)
+            throw new IllegalArgumentException("Celestial body cannot be null");
+
+        int stripe = (int) (Thread.currentThread().getId() % STRIPES) * STRIPE_SPACING;
+        runningAdds.incrementAndGet(stripe);
+        try {
+            if (committed.get())
+                throw new IllegalStateException("The import was already committed");
+
+            String key = body.getNameKey();
+            if (body instanceof Star)
+                return stars.putIfAbsent(key, (Star) body) == null;
+            else if (body instanceof Planet)
+                return planets.putIfAbsent(key, (Planet) body) == null;
+            else if (body instanceof Galaxy)
+                return galaxies.putIfAbsent(key, (Galaxy) body) == null;
+            throw new IllegalArgumentException("Unknown type of celestial body: " + body.getClass().getSimpleName());
+        } finally {
+            runningAdds.decrementAndGet(stripe);
+        }
+    }
+
+    /**
+     * Returns the stars added so far, sorted by name. The view follows later additions.
+     * @return unmodifiable view of the stars
+     */
+    public Collection<Star> getStars() {
+        return Collections.unmodifiableCollection(stars.values());
+    }
+
+    /**
+     * Returns the planets added so far, sorted by name. The view follows later additions.
+     * @return unmodifiable view of the planets
+     */
+    public Collection<Planet> getPlanets() {
+        return Collections.unmodifiableCollection(planets.values());
+    }
+
+    /**
+     * Returns the galaxies added so far, sorted by name. The view follows later additions.
+     * @return unmodifiable view of the galaxies
+     */
+    public Collection<Galaxy> getGalaxies() {
+        return Collections.unmodifiableCollection(galaxies.values());
+    }
+
+    /**
+     * Returns the number of bodies added so far. Like the size of any concurrent map, it is only an estimate
+     * while threads are still adding.
+     * @return the number of bodies
+     */
+    public int size() {
+        return stars.size() + planets.size() + galaxies.size();
+    }
+
+    /**
+     * Adds every body of the import to the catalog in one new snapshot. Bodies whose type and name are already
+     * in the catalog are skipped. Adds still running are waited for, and later adds fail.
+     * @throws IllegalStateException if the import was already committed
+     */
+    public void commit() {
+        if (!committed.compareAndSet(false, true))
+            throw new IllegalStateException("The import was already committed");
+        // an add that has not seen the flag counted itself in before the flag was set, so it is seen here
+        for (int stripe = 0; stripe < STRIPES * STRIPE_SPACING; stripe += STRIPE_SPACING)
+            while (runningAdds.get(stripe) != 0)
+                Thread.yield();
+
+        ArrayList<CelestialBody> all = new ArrayList<>(size());
+        all.addAll(stars.values());
+        all.addAll(planets.values());
+        all.addAll(galaxies.values());
+        dataManager.addAll(all);
+    }
+}
@@ -0,0 +1,18 @@
+package am.aua.space_encyclopedia.data;
+
+/**
+ * The <code>CatalogListener</code> interface is notified each time a <code>DataManager</code> publishes a new
+ * version of its catalog.
+ * <p>
+ * Listeners are called on the thread that changed the catalog, one change at a time and in the order the versions
+ * were published, while other writers wait. They should only record what changed and hand any real work, such as
+ * updating Swing components, to another thread.
+ */
+public interface CatalogListener {
+    /**
+     * Called after a new version of the catalog has been published.
+     * @param previous the version that was current before the change
+     * @param current the version published by the change
+     */
+    void catalogChanged(CatalogSnapshot previous, CatalogSnapshot current);
+}
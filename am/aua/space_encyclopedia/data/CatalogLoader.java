@@ -0,0 +1,408 @@
+package am.aua.space_encyclopedia.data;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import am.aua.space_encyclopedia.core.*;
+
+/**
+ * The <code>CatalogLoader</code> class reads celestial objects from a data file using all available cores.
+ * <p>
+ * The file is memory-mapped and split into chunks that always end on a line boundary.
+ * The chunks are parsed in parallel on a fork-join pool with a <code>LineTokenizer</code>,
+ * and the results are put back together in file order. Lines that cannot be parsed are collected
+ * as <code>ParseError</code>s carrying their line number in the file.
+ * <p>
+ * An object of type <code>CatalogLoader</code> contains:
+ * <ul>
+ *   <li><code>path</code> - The file to read</li>
+ *   <li><code>chunkSize</code> - The approximate number of bytes parsed by one task</li>
+ * </ul>
+ */
+class CatalogLoader {
+    /** The default number of bytes handed to one parsing task. */
+    static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+
+    private static final int SCAN_BUFFER_SIZE = 4096;
+
+    private final Path path;
+    private final int chunkSize;
+
+    /**
+     * Constructs a loader for the given file with the default chunk size.
+     * @param fileName the data file to read
+     */
+    CatalogLoader(String fileName) {
+        this(fileName, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Constructs a loader for the given file.
+     * @param fileName the data file to read
+     * @param chunkSize the approximate number of bytes parsed by one task (must be positive)
+     * @throws IllegalArgumentException if chunkSize is not positive
+     */
+    CatalogLoader(String fileName, int chunkSize) {
+        if (chunkSize <= 0)
+            throw new IllegalArgumentException("Chunk size must be positive.");
+        this.path = Paths.get(fileName);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Reads and parses the whole file.
+     * @return the parsed bodies and the lines that could not be parsed, both in file order
+     * @throws IOException if the file cannot be read
+     */
+    Result load() throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long[] bounds = findChunkBounds(channel);
+            Result[] parts = new Result[bounds.length - 1];
+            ForkJoinPool.commonPool().invoke(new ParseTask(channel, bounds, parts, 0, parts.length));
+            return Result.concat(parts);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Reads and parses the file one window of chunks at a time, handing every parsed chunk to the listener in file order.
+     * A window holds one chunk per core, so only that many parsed chunks are in memory at once and the listener
+     * decides what is kept.
+     * @param listener the listener to receive the chunks
+     * @throws IOException if the file cannot be read
+     */
+    void load(ChunkListener listener) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long[] bounds = findChunkBounds(channel);
+            int chunks = bounds.length - 1;
+            int window = Math.max(1, ForkJoinPool.commonPool().getParallelism());
+            Result[] parts = new Result[chunks];
+
+            int linesBefore = 0;
+            for (int from = 0; from < chunks; from += window) {
+                int to = Math.min(chunks, from + window);
+                ForkJoinPool.commonPool().invoke(new ParseTask(channel, bounds, parts, from, to));
+                for (int i = from; i < to; i++) {
+                    parts[i].shiftLineNumbers(linesBefore);
+                    linesBefore += parts[i].lineCount;
+                    listener.chunkLoaded(parts[i], bounds[i + 1], bounds[chunks]);
+                    parts[i] = null;
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Splits the file into ranges of roughly <code>chunkSize</code> bytes, moving every split point
+     * forward to the start of the next line.
+     * @param channel the open file
+     * @return the chunk boundaries, starting with 0 and ending with the file size
+     * @throws IOException if the file cannot be read
+     */
+    private long[] findChunkBounds(FileChannel channel) throws IOException {
+        long size = channel.size();
+        ArrayList<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+
+        long next = chunkSize;
+        while (next < size) {
+            long lineStart = findLineStart(channel, buffer, next, size);
+            if (lineStart >= size)
+                break;
+            bounds.add(lineStart);
+            next = lineStart + chunkSize;
+        }
+        bounds.add(size);
+
+        long[] result = new long[bounds.size()];
+        for (int i = 0; i < result.length; i++)
+            result[i] = bounds.get(i);
+        return result;
+    }
+
+    /**
+     * Finds the first line that starts at or after the given position.
+     */
+    private static long findLineStart(FileChannel channel, ByteBuffer buffer, long position, long size)
+            throws IOException {
+        long pos = position - 1;
+        while (pos < size) {
+            buffer.clear();
+            int read = channel.read(buffer, pos);
+            if (read <= 0)
+                break;
+            for (int i = 0; i < read; i++)
+                if (buffer.get(i) == '\n')
+                    return pos + i + 1;
+            pos += read;
+        }
+        return size;
+    }
+
+    /**
+     * Parses a line of text from the data file and converts it into a celestial object.
+     * A line with missing fields, an invalid number, a value the constructor rejects (such as a luminosity
+     * saved as <code>0.00</code>) or a value a derived attribute cannot be computed from does not throw;
+     * the problem is left in <code>tokenizer.getError()</code> and null is returned.
+     * @param tokenizer the tokenizer to split the line with
+     * @param line the line to parse
+     * @return the parsed CelestialBody object, or null if the line is invalid or not a known record type
+     */
+    static CelestialBody parseLine(LineTokenizer tokenizer, String line) {
+        try {
+            return createBody(tokenizer, line);
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            tokenizer.fail(e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Reads the fields of a line and passes them to the constructor of its record type.
+     * @throws IllegalArgumentException if the constructor rejects a value
+     */
+    private static CelestialBody createBody(LineTokenizer tokenizer, String line) {
+        tokenizer.tokenize(line);
+        if (!tokenizer.requireFields(1))
+            return null;
+
+        if (tokenizer.fieldEquals(0, "Star")) {
+            if (!tokenizer.requireFields(9))
+                return null;
+            String name = tokenizer.get(1);
+            double distance = tokenizer.getDouble(2);
+            double mass = tokenizer.getDouble(3);
+            double temperature = tokenizer.getDouble(4);
+            String type = tokenizer.get(5);
+            String color = tokenizer.get(6);
+            double luminosity = tokenizer.getDouble(7);
+            double size = tokenizer.getDouble(8);
+            if (tokenizer.getError() != null)
+                return null;
+            return new Star(name, distance, mass, temperature, type, color, luminosity, size);
+        } else if (tokenizer.fieldEquals(0, "Planet")) {
+            if (!tokenizer.requireFields(10))
+                return null;
+            String name = tokenizer.get(1);
+            double distance = tokenizer.getDouble(2);
+            double mass = tokenizer.getDouble(3);
+            double temperature = tokenizer.getDouble(4);
+            String type = tokenizer.get(5);
+            String atmosphere = tokenizer.get(6);
+            int moons = tokenizer.getInt(7);
+            String surface = tokenizer.get(8);
+            double radius = tokenizer.getDouble(9);
+            if (tokenizer.getError() != null)
+                return null;
+            return new Planet(name, distance, mass, temperature, type, atmosphere, moons, surface, radius);
+        } else if (tokenizer.fieldEquals(0, "Galaxy")) {
+            if (!tokenizer.requireFields(9))
+                return null;
+            String name = tokenizer.get(1);
+            double distance = tokenizer.getDouble(2);
+            double mass = tokenizer.getDouble(3);
+            double temperature = tokenizer.getDouble(4);
+            String type = tokenizer.get(5);
+            long numberOfStars = tokenizer.getLong(6);
+            double diameter = tokenizer.getDouble(7);
+            double age = tokenizer.getDouble(8);
+            if (tokenizer.getError() != null)
+                return null;
+            return new Galaxy(name, distance, mass, temperature, type, numberOfStars, diameter, age);
+        }
+        return null;
+    }
+
+    /**
+     * Parses one mapped chunk line by line.
+     * Lines end with <code>\n</code> or <code>\r\n</code>, like <code>BufferedReader.readLine()</code>.
+     */
+    private static Result parseChunk(MappedByteBuffer buffer, Charset charset) {
+        Result result = new Result();
+        LineTokenizer tokenizer = new LineTokenizer();
+        byte[] lineBytes = new byte[256];
+        int limit = buffer.limit();
+        int lineStart = 0;
+        int lineNumber = 0;
+
+        while (lineStart < limit) {
+            lineNumber++;
+            int lineEnd = lineStart;
+            while (lineEnd < limit && buffer.get(lineEnd) != '\n')
+                lineEnd++;
+            int next = lineEnd + 1;
+            if (lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r')
+                lineEnd--;
+
+            int length = lineEnd - lineStart;
+            if (length > lineBytes.length)
+                lineBytes = new byte[Math.max(length, lineBytes.length * 2)];
+            buffer.get(lineStart, lineBytes, 0, length);
+            String line = new String(lineBytes, 0, length, charset);
+
+            CelestialBody body = parseLine(tokenizer, line);
+            if (tokenizer.getError() != null)
+                result.errors.add(new ParseError(lineNumber, line, tokenizer.getError()));
+            else if (body != null)
+                result.bodies.add(body);
+            lineStart = next;
+        }
+        result.lineCount = lineNumber;
+        return result;
+    }
+
+    /**
+     * Splits a range of chunks in half until a single chunk is left, then parses it.
+     */
+    private static class ParseTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final FileChannel channel;
+        private final long[] bounds;
+        private final Result[] parts;
+        private final int from;
+        private final int to;
+
+        ParseTask(FileChannel channel, long[] bounds, Result[] parts, int from, int to) {
+            this.channel = channel;
+            this.bounds = bounds;
+            this.parts = parts;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ParseTask(channel, bounds, parts, from, middle),
+                          new ParseTask(channel, bounds, parts, middle, to));
+                return;
+            }
+            if (from == to)
+                return;
+            try {
+                long start = bounds[from];
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, bounds[from + 1] - start);
+                parts[from] = parseChunk(buffer, Charset.defaultCharset());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Receives the parsed chunks of a file in file order.
+     */
+    interface ChunkListener {
+        /**
+         * Called after a chunk has been parsed.
+         * @param chunk the bodies and parse errors of the chunk, with line numbers counted from the start of the file
+         * @param bytesRead the number of bytes of the file parsed so far
+         * @param totalBytes the size of the file
+         */
+        void chunkLoaded(Result chunk, long bytesRead, long totalBytes);
+    }
+
+    /**
+     * A line of the data file that could not be parsed.
+     */
+    static class ParseError {
+        private int lineNumber;
+        private final String line;
+        private final String message;
+
+        ParseError(int lineNumber, String line, String message) {
+            this.lineNumber = lineNumber;
+            this.line = line;
+            this.message = message;
+        }
+
+        /**
+         * Returns the number of the line in the file, starting at 1.
+         * @return the line number
+         */
+        int getLineNumber() {
+            return lineNumber;
+        }
+
+        /**
+         * Returns the text of the line.
+         * @return the line
+         */
+        String getLine() {
+            return line;
+        }
+
+        /**
+         * Returns what is wrong with the line, such as a missing field or an invalid number.
+         * @return the problem
+         */
+        String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return "line " + lineNumber + " (" + message + "): " + line;
+        }
+    }
+
+    /**
+     * The outcome of parsing a file or a chunk of it.
+     */
+    static class Result {
+        private final ArrayList<CelestialBody> bodies = new ArrayList<>();
+        private final ArrayList<ParseError> errors = new ArrayList<>();
+        private int lineCount;
+
+        /**
+         * Returns the parsed bodies in file order.
+         * @return list of parsed bodies
+         */
+        ArrayList<CelestialBody> getBodies() {
+            return bodies;
+        }
+
+        /**
+         * Returns the lines that had an invalid number or missing data, in file order.
+         * @return list of parse errors
+         */
+        ArrayList<ParseError> getErrors() {
+            return errors;
+        }
+
+        /**
+         * Turns line numbers counted from the start of a chunk into line numbers counted from the start of the file.
+         */
+        private void shiftLineNumbers(int linesBefore) {
+            for (ParseError error : errors)
+                error.lineNumber += linesBefore;
+        }
+
+        private static Result concat(Result[] parts) {
+            if (parts.length == 1)
+                return parts[0];
+            Result all = new Result();
+            for (Result part : parts) {
+                part.shiftLineNumbers(all.lineCount);
+                all.bodies.addAll(part.bodies);
+                all.errors.addAll(part.errors);
+                all.lineCount += part.lineCount;
+            }
+            return all;
+        }
+    }
+}
@@ -0,0 +1,692 @@
+package am.aua.space_encyclopedia.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.IntStream;
+import am.aua.space_encyclopedia.core.*;
+
+/**
+ * The <code>CatalogSnapshot</code> class is one immutable version of the catalog held by a <code>DataManager</code>.
+ * <p>
+ * A snapshot never changes after it is published. Adding bodies to the <code>DataManager</code> builds a new
+ * snapshot from copies of the changed lists and publishes it in one step, so a reader that holds a snapshot keeps
+ * seeing the catalog exactly as it was, with every list and search consistent with the others, while writers
+ * go on. Reading never takes a lock.
+ * <p>
+ * The name, substring and fuzzy indexes behind the searches are shared by every version of the catalog. Each is
+ * built the first time it is needed, from every body added so far, and from then on kept up to date by each new
+ * version as it is made, so a change costs only the work for the added bodies. The bodies are numbered in the
+ * order they were added, and a search on a version only takes the numbers below its size, which keeps the
+ * results of an older version unchanged. The sorted list of a type and its range indexes are shared with the
+ * next snapshot when that type is not changed.
+ * <p>
+ * An object of type <code>CatalogSnapshot</code> contains:
+ * <ul>
+ *   <li><code>version</code> - The number of changes published before this snapshot</li>
+ *   <li>Fields of type <code>Bodies</code> holding the sorted, unmodifiable list and the range indexes of
+ *       <code>stars</code>, <code>planets</code> and <code>galaxies</code></li>
+ *   <li><code>insertedRows</code> - The rows at which the bodies new in this version stand, for each type</li>
+ *   <li><code>indexes</code> - The name, substring and fuzzy indexes shared with the other versions</li>
+ * </ul>
+ */
+public final class CatalogSnapshot {
+    private static final NumericAttribute[] ATTRIBUTES = NumericAttribute.values();
+    private static final Class<?>[] TYPES = { Star.class, Planet.class, Galaxy.class };
+    /** The number of names from which <code>findAllByName</code> resolves them in parallel. */
+    public static final int PARALLEL_LOOKUP_THRESHOLD = 4096;
+
+    private final long version;
+    private final Bodies<Star> stars;
+    private final Bodies<Planet> planets;
+    private final Bodies<Galaxy> galaxies;
+    private final Indexes indexes;
+    private final int[][] insertedRows;
+
+    /**
+     * Constructs the empty first version of a catalog.
+     */
+    CatalogSnapshot() {
+        this(0, new Bodies<>(new ArrayList<>()), new Bodies<>(new ArrayList<>()), new Bodies<>(new ArrayList<>()),
+                new Indexes(), new int[TYPES.length][0]);
+    }
+
+    private CatalogSnapshot(long version, Bodies<Star> stars, Bodies<Planet> planets, Bodies<Galaxy> galaxies,
+                            Indexes indexes, int[][] insertedRows) {
+        this.version = version;
+        this.stars = stars;
+        this.planets = planets;
+        this.galaxies = galaxies;
+        this.indexes = indexes;
+        this.insertedRows = insertedRows;
+    }
+
+    /**
+     * Returns the next version of the catalog with the given changes; a null change keeps the list of this version.
+     * The lists are taken over and must not be changed afterwards. The inserted bodies are put into the shared
+     * indexes right away, so this must only be called on the newest version, by one thread at a time.
+     * @param newStars the sorted stars and the rows of the inserted ones, or null if unchanged
+     * @param newPlanets the sorted planets and the rows of the inserted ones, or null if unchanged
+     * @param newGalaxies the sorted galaxies and the rows of the inserted ones, or null if unchanged
+     * @return the new snapshot
+     */
+    CatalogSnapshot with(ListChange<Star> newStars, ListChange<Planet> newPlanets, ListChange<Galaxy> newGalaxies) {
+        ListChange<?>[] changes = { newStars, newPlanets, newGalaxies };
+        int[][] rows = new int[TYPES.length][];
+        for (int type = 0; type < TYPES.length; type++) {
+            ListChange<?> change = changes[type];
+            rows[type] = change == null ? new int[0] : change.getRows();
+            if (change != null)
+                indexes.add(change.getList(), rows[type]);
+        }
+        return new CatalogSnapshot(version + 1,
+                newStars == null ? stars : new Bodies<>(newStars.getList()),
+                newPlanets == null ? planets : new Bodies<>(newPlanets.getList()),
+                newGalaxies == null ? galaxies : new Bodies<>(newGalaxies.getList()),
+                indexes, rows);
+    }
+
+    /**
+     * Returns the number of changes published before this snapshot. A later snapshot has a larger version.
+     * @return the version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the stars of this version, sorted by name.
+     * @return unmodifiable list of stars
+     */
+    public List<Star> getStars() {
+        return stars.list;
+    }
+
+    /**
+     * Returns the planets of this version, sorted by name.
+     * @return unmodifiable list of planets
+     */
+    public List<Planet> getPlanets() {
+        return planets.list;
+    }
+
+    /**
+     * Returns the galaxies of this version, sorted by name.
+     * @return unmodifiable list of galaxies
+     */
+    public List<Galaxy> getGalaxies() {
+        return galaxies.list;
+    }
+
+    /**
+     * Returns the sorted list of the given type of body.
+     * @param type <code>Star.class</code>, <code>Planet.class</code> or <code>Galaxy.class</code>
+     * @param <T> the type of celestial body
+     * @return unmodifiable list of bodies of that type, sorted by name
+     * @throws IllegalArgumentException if type is not one of the three
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends CelestialBody> List<T> getBodies(Class<T> type) {
+        switch (typeIndex(type)) {
+            case 0:
+                return (List<T>) stars.list;
+            case 1:
+                return (List<T>) planets.list;
+            default:
+                return (List<T>) galaxies.list;
+        }
+    }
+
+    /**
+     * Returns the rows at which the bodies of the given type that are new in this version stand in its sorted list.
+     * Inserting them one by one at these rows, in ascending order, into the list of the previous version gives the
+     * list of this version.
+     * @param type <code>Star.class</code>, <code>Planet.class</code> or <code>Galaxy.class</code>
+     * @return the rows in ascending order, empty if this version added no body of that type
+     * @throws IllegalArgumentException if type is not one of the three
+     */
+    public int[] getInsertedRows(Class<? extends CelestialBody> type) {
+        return insertedRows[typeIndex(type)].clone();
+    }
+
+    /**
+     * Returns the number of bodies of every type.
+     * @return the size of the catalog
+     */
+    public int size() {
+        return stars.list.size() + planets.list.size() + galaxies.list.size();
+    }
+
+    /**
+     * Searches for a celestial body by name across all types. If several types share the name,
+     * the star is returned first, then the planet, then the galaxy.
+     * @param name the name of the celestial body to search for
+     * @return the found body, or <code>null</code> if not found or if name is null or empty
+     */
+    public CelestialBody findCelestialBodyByName(String name) {
+        if (name == null || name.trim().isEmpty())
+            return null;
+        return indexes.getNameIndex().get(CelestialBody.normalizeName(name.trim()), size());
+    }
+
+    /**
+     * Searches for a celestial body of the given type by name.
+     * @param name the name of the celestial body to search for
+     * @param type the class of the body
+     * @param <T> the type of celestial body
+     * @return the found body, or <code>null</code> if there is no body of that type with that name
+     */
+    public <T extends CelestialBody> T findCelestialBodyByName(String name, Class<T> type) {
+        for (CelestialBody body : findCelestialBodiesByName(name))
+            if (type.isInstance(body))
+                return type.cast(body);
+        return null;
+    }
+
+    /**
+     * Returns every celestial body with the given name.
+     * @param name the name to search for
+     * @return list of matching bodies (stars first, then planets, then galaxies), empty if none
+     */
+    public List<CelestialBody> findCelestialBodiesByName(String name) {
+        if (name == null || name.trim().isEmpty())
+            return Collections.emptyList();
+        return indexes.getNameIndex().getAll(CelestialBody.normalizeName(name.trim()), size());
+    }
+
+    /**
+     * Searches for many names at once. Each name is trimmed and normalized once and looked up in the name index;
+     * batches of <code>PARALLEL_LOOKUP_THRESHOLD</code> names or more are resolved in parallel.
+     * @param names the names to search for
+     * @return one entry per name, in the order of the collection: the body <code>findCelestialBodyByName</code>
+     *         would return, or an empty <code>Optional</code> if there is none or the name is null or empty
+     * @throws IllegalArgumentException if names is null
+     */
+    public List<Optional<CelestialBody>> findAllByName(Collection<String> names) {
+        if (names == null)
+            throw new IllegalArgumentException("Names cannot be null");
+        String[] input = names.toArray(new String[0]);
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Optional<CelestialBody>[] results = new Optional[input.length];
+        NameIndex index = indexes.getNameIndex();
+        int count = size();
+
+        IntStream positions = IntStream.range(0, input.length);
+        if (input.length >= PARALLEL_LOOKUP_THRESHOLD)
+            positions = positions.parallel();
+        positions.forEach(i -> {
+            String name = input[i];
+            if (name == null || (name = name.trim()).isEmpty())
+                results[i] = Optional.empty();
+            else
+                results[i] = Optional.ofNullable(index.get(CelestialBody.normalizeName(name), count));
+        });
+        return Collections.unmodifiableList(Arrays.asList(results));
+    }
+
+    /**
+     * Returns the names that are shared by bodies of different types.
+     * @return list of colliding names, sorted case-insensitively
+     */
+    public List<String> getNameCollisions() {
+        NameIndex index = indexes.getNameIndex();
+        int count = size();
+        ArrayList<String> names = new ArrayList<>();
+        for (String key : index.getCollisions(count))
+            names.add(index.get(key, count).getName());
+        Collections.sort(names, String.CASE_INSENSITIVE_ORDER);
+        return names;
+    }
+
+    /**
+     * Returns the celestial bodies whose names contain the given text (case-insensitive).
+     * @param term the text to look for
+     * @return list of matching bodies: stars, then planets, then galaxies, each sorted by name
+     * @throws IllegalArgumentException if term is null
+     */
+    public List<CelestialBody> findCelestialBodiesContaining(String term) {
+        if (term == null)
+            throw new IllegalArgumentException("Search term cannot be null");
+        return indexes.getSubstringIndex().find(term, Integer.MAX_VALUE, byType());
+    }
+
+    /**
+     * Returns the celestial bodies whose names contain the given text (case-insensitive), at most a given number
+     * of each type. The search stops once it has enough of every type, so a short, common term stays cheap.
+     * @param term the text to look for
+     * @param limit the maximum number of stars, of planets and of galaxies to return (must be positive)
+     * @return list of matching bodies: stars, then planets, then galaxies, each sorted by name
+     * @throws IllegalArgumentException if term is null or limit is not positive
+     */
+    public List<CelestialBody> findCelestialBodiesContaining(String term, int limit) {
+        if (term == null)
+            throw new IllegalArgumentException("Search term cannot be null");
+        if (limit <= 0)
+            throw new IllegalArgumentException("Limit must be positive");
+        return indexes.getSubstringIndex().find(term, limit, byType());
+    }
+
+    /**
+     * Returns the celestial bodies whose names are closest to the given, possibly misspelled, name ("did you mean").
+     * The allowed number of edits grows with the length of the name: 1 up to 4 characters, 2 up to 8, and 3 beyond.
+     * @param name the name to look for
+     * @param limit the maximum number of names to return (must be positive)
+     * @return list of bodies, closest name first
+     * @throws IllegalArgumentException if name is null or limit is not positive
+     */
+    public List<CelestialBody> findSimilarCelestialBodies(String name, int limit) {
+        if (name == null)
+            throw new IllegalArgumentException("Name cannot be null");
+        int length = name.trim().length();
+        int maxDistance = length <= 4 ? 1 : length <= 8 ? 2 : 3;
+        return findSimilarCelestialBodies(name, maxDistance, limit);
+    }
+
+    /**
+     * Returns the celestial bodies whose names are within the given edit distance of the given name, closest first.
+     * @param name the name to look for
+     * @param maxDistance the largest number of inserted, deleted or replaced characters allowed
+     * @param limit the maximum number of names to return (must be positive)
+     * @return list of bodies, closest name first
+     * @throws IllegalArgumentException if name is null, maxDistance is negative or limit is not positive
+     */
+    public List<CelestialBody> findSimilarCelestialBodies(String name, int maxDistance, int limit) {
+        if (name == null)
+            throw new IllegalArgumentException("Name cannot be null");
+        if (maxDistance < 0)
+            throw new IllegalArgumentException("Distance cannot be negative");
+        if (limit <= 0)
+            throw new IllegalArgumentException("Limit must be positive");
+
+        NameIndex names = indexes.getNameIndex();
+        FuzzyNameIndex fuzzy = indexes.getFuzzyIndex();
+        int count = size();
+        ArrayList<CelestialBody> similar = new ArrayList<>();
+        for (String key : fuzzy.findClosest(CelestialBody.normalizeName(name.trim()), maxDistance, limit, count))
+            similar.addAll(names.getAll(key, count));
+        return similar;
+    }
+
+    /**
+     * Returns the stars whose attributes all lie in the given ranges.
+     * @param ranges the ranges to satisfy; with no ranges every star is returned
+     * @return list of matching stars, sorted by name
+     * @throws IllegalArgumentException if a range uses an attribute that stars do not have
+     */
+    public List<Star> findStarsInRange(RangePredicate... ranges) {
+        return findInRange(stars, Star.class, ranges);
+    }
+
+    /**
+     * Returns the planets whose attributes all lie in the given ranges.
+     * @param ranges the ranges to satisfy; with no ranges every planet is returned
+     * @return list of matching planets, sorted by name
+     * @throws IllegalArgumentException if a range uses an attribute that planets do not have
+     */
+    public List<Planet> findPlanetsInRange(RangePredicate... ranges) {
+        return findInRange(planets, Planet.class, ranges);
+    }
+
+    /**
+     * Returns the galaxies whose attributes all lie in the given ranges.
+     * @param ranges the ranges to satisfy; with no ranges every galaxy is returned
+     * @return list of matching galaxies, sorted by name
+     * @throws IllegalArgumentException if a range uses an attribute that galaxies do not have
+     */
+    public List<Galaxy> findGalaxiesInRange(RangePredicate... ranges) {
+        return findInRange(galaxies, Galaxy.class, ranges);
+    }
+
+    /**
+     * Returns the stars whose text attribute has exactly the given value.
+     * @param attribute the attribute to compare
+     * @param value the value to look for (case-sensitive)
+     * @return list of matching stars, sorted by name
+     * @throws IllegalArgumentException if stars do not have the attribute
+     */
+    public List<Star> findStarsWhere(TextAttribute attribute, String value) {
+        return findWhere(stars.list, Star.class, attribute, value);
+    }
+
+    /**
+     * Returns the planets whose text attribute has exactly the given value.
+     * @param attribute the attribute to compare
+     * @param value the value to look for (case-sensitive)
+     * @return list of matching planets, sorted by name
+     * @throws IllegalArgumentException if planets do not have the attribute
+     */
+    public List<Planet> findPlanetsWhere(TextAttribute attribute, String value) {
+        return findWhere(planets.list, Planet.class, attribute, value);
+    }
+
+    /**
+     * Returns the galaxies whose text attribute has exactly the given value.
+     * @param attribute the attribute to compare
+     * @param value the value to look for (case-sensitive)
+     * @return list of matching galaxies, sorted by name
+     * @throws IllegalArgumentException if galaxies do not have the attribute
+     */
+    public List<Galaxy> findGalaxiesWhere(TextAttribute attribute, String value) {
+        return findWhere(galaxies.list, Galaxy.class, attribute, value);
+    }
+
+    /**
+     * Returns a page of stars in name order.
+     * @param cursor the cursor of the previous page, or null for the first page
+     * @param pageSize the maximum number of stars on the page (must be positive)
+     * @return the page
+     */
+    public Page<Star> getStarsPage(String cursor, int pageSize) {
+        return getPage(stars.list, cursor, pageSize);
+    }
+
+    /**
+     * Returns a page of planets in name order.
+     * @param cursor the cursor of the previous page, or null for the first page
+     * @param pageSize the maximum number of planets on the page (must be positive)
+     * @return the page
+     */
+    public Page<Planet> getPlanetsPage(String cursor, int pageSize) {
+        return getPage(planets.list, cursor, pageSize);
+    }
+
+    /**
+     * Returns a page of galaxies in name order.
+     * @param cursor the cursor of the previous page, or null for the first page
+     * @param pageSize the maximum number of galaxies on the page (must be positive)
+     * @return the page
+     */
+    public Page<Galaxy> getGalaxiesPage(String cursor, int pageSize) {
+        return getPage(galaxies.list, cursor, pageSize);
+    }
+
+    /**
+     * Returns the stars whose names start with the given prefix (case-insensitive), in sorted order.
+     * @param prefix the beginning of the name
+     * @param limit the maximum number of stars to return (must be positive)
+     * @return list of matching stars
+     */
+    public List<Star> findStarsByPrefix(String prefix, int limit) {
+        return findByPrefix(stars.list, prefix, limit);
+    }
+
+    /**
+     * Returns the planets whose names start with the given prefix (case-insensitive), in sorted order.
+     * @param prefix the beginning of the name
+     * @param limit the maximum number of planets to return (must be positive)
+     * @return list of matching planets
+     */
+    public List<Planet> findPlanetsByPrefix(String prefix, int limit) {
+        return findByPrefix(planets.list, prefix, limit);
+    }
+
+    /**
+     * Returns the galaxies whose names start with the given prefix (case-insensitive), in sorted order.
+     * @param prefix the beginning of the name
+     * @param limit the maximum number of galaxies to return (must be positive)
+     * @return list of matching galaxies
+     */
+    public List<Galaxy> findGalaxiesByPrefix(String prefix, int limit) {
+        return findByPrefix(galaxies.list, prefix, limit);
+    }
+
+    private static int typeIndex(Class<?> type) {
+        for (int i = 0; i < TYPES.length; i++)
+            if (TYPES[i] == type)
+                return i;
+        throw new IllegalArgumentException("Unknown type of celestial body: " + type);
+    }
+
+    private List<List<? extends CelestialBody>> byType() {
+        return Arrays.asList(stars.list, planets.list, galaxies.list);
+    }
+
+    /**
+    *Finds the objects matching every range. Each range is sized with two binary searches on its attribute's index;
+    *the smallest one is walked and the other ranges are checked directly on its objects, so the cost is logarithmic
+    *plus the size of the most selective range.
+     * @param bodies - the sorted list to search and its range indexes
+     * @param type - the class of the objects in the list
+     * @param ranges the ranges to satisfy
+     * @param <T> - the type of celestial object
+     * @return list of matching objects, sorted by name
+     */
+    private static <T extends CelestialBody> List<T> findInRange(Bodies<T> bodies, Class<T> type, RangePredicate... ranges) {
+        List<T> list = bodies.list;
+        if (ranges == null || ranges.length == 0)
+            return new ArrayList<>(list);
+
+        RangePredicate driver = null;
+        RangeIndex driverIndex = null;
+        int from = 0;
+        int to = 0;
+        for (RangePredicate range : ranges) {
+            if (range == null)
+                throw new IllegalArgumentException("Range cannot be null");
+            NumericAttribute attribute = range.getAttribute();
+            if (!attribute.appliesTo(type))
+                throw new IllegalArgumentException(type.getSimpleName() + " has no attribute " + attribute);
+
+            RangeIndex index = bodies.getRangeIndex(attribute);
+            int start = index.lowerBound(range.getMin());
+            int end = Math.max(start, index.upperBound(range.getMax()));
+            if (driver == null || end - start < to - from) {
+                driver = range;
+                driverIndex = index;
+                from = start;
+                to = end;
+            }
+        }
+
+        int[] rows = new int[to - from];
+        int count = 0;
+        candidates:
+        for (int i = from; i < to; i++) {
+            int row = driverIndex.rowAt(i);
+            T obj = list.get(row);
+            for (RangePredicate range : ranges)
+                if (range != driver && !range.matches(obj))
+                    continue candidates;
+            rows[count++] = row;
+        }
+
+        Arrays.sort(rows, 0, count);
+        ArrayList<T> matches = new ArrayList<>(count);
+        for (int i = 0; i < count; i++)
+            matches.add(list.get(rows[i]));
+        return matches;
+    }
+
+    /**
+    *Finds the objects whose attribute equals the value. The value is looked up in the dictionary once
+    *and the scan then compares integer codes; a value missing from the dictionary matches nothing.
+     * @param list - the sorted list to search
+     * @param type - the class of the objects in the list
+     * @param attribute - the attribute to compare
+     * @param value - the value to look for
+     * @param <T> - the type of celestial object
+     * @return list of matching objects, sorted by name
+     */
+    private static <T extends CelestialBody> List<T> findWhere(List<T> list, Class<T> type,
+                                                             TextAttribute attribute, String value) {
+        if (attribute == null)
+            throw new IllegalArgumentException("Attribute cannot be null");
+        if (!attribute.appliesTo(type))
+            throw new IllegalArgumentException(type.getSimpleName() + " has no attribute " + attribute);
+
+        ArrayList<T> matches = new ArrayList<>();
+        int code = AttributeDictionary.codeOf(value);
+        if (code == AttributeDictionary.NO_CODE)
+            return matches;
+        for (T obj : list)
+            if (attribute.codeOf(obj) == code)
+                matches.add(obj);
+        return matches;
+    }
+
+    /**
+    *Finds the objects whose names start with the given prefix. The list is sorted by name, and the
+    *normalized name keys sort the same way, so all matches form one range: its start is found by a binary search
+    *over the keys and the matches are read in order from there, without scanning or sorting the rest of the list.
+     * @param list - the sorted list to search
+     * @param prefix the beginning of the name
+     * @param limit the maximum number of objects to return
+     * @param <T> - the type of celestial object
+     * @return list of matching objects, in sorted order
+     * @throws IllegalArgumentException if prefix is null or limit is not positive
+     */
+    private static <T extends CelestialBody> List<T> findByPrefix(List<T> list, String prefix, int limit) {
+        if (prefix == null)
+            throw new IllegalArgumentException("Prefix cannot be null");
+        if (limit <= 0)
+            throw new IllegalArgumentException("Limit must be positive");
+        String key = CelestialBody.normalizeName(prefix);
+
+        int low = 0;
+        int high = list.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (list.get(middle).getNameKey().compareTo(key) < 0)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+
+        ArrayList<T> matches = new ArrayList<>();
+        for (int i = low; i < list.size() && matches.size() < limit; i++) {
+            T obj = list.get(i);
+            if (!obj.getNameKey().startsWith(key))
+                break;
+            matches.add(obj);
+        }
+        return matches;
+    }
+
+    /**
+     * Returns the bodies after the cursor, found by binary search on the name keys the list is sorted by.
+     * @throws IllegalArgumentException if pageSize is not positive
+     */
+    private static <T extends CelestialBody> Page<T> getPage(List<T> list, String cursor, int pageSize) {
+        if (pageSize <= 0)
+            throw new IllegalArgumentException("Page size must be positive");
+
+        int low = 0;
+        if (cursor != null) {
+            int high = list.size();
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (list.get(middle).getNameKey().compareTo(cursor) <= 0)
+                    low = middle + 1;
+                else
+                    high = middle;
+            }
+        }
+
+        int end = (int) Math.min((long) low + pageSize, list.size());
+        ArrayList<T> items = new ArrayList<>(list.subList(low, end));
+        String nextCursor = end < list.size() ? items.get(items.size() - 1).getNameKey() : null;
+        return new Page<>(items, nextCursor);
+    }
+
+    /**
+     * The name, substring and fuzzy indexes shared by all versions of one catalog, each built on first use from
+     * every body added so far and then kept up to date as bodies are added. The bodies are kept in the order they
+     * were added, which is the order of their numbers in the indexes, so that an index built later numbers them
+     * the same way.
+     */
+    private static class Indexes {
+        private CelestialBody[] added = new CelestialBody[16];
+        private int count;
+        private volatile NameIndex nameIndex;
+        private volatile SubstringIndex substringIndex;
+        private volatile FuzzyNameIndex fuzzyIndex;
+
+        synchronized void add(List<? extends CelestialBody> list, int[] rows) {
+            if (count + rows.length > added.length)
+                added = Arrays.copyOf(added, Math.max(added.length * 2, count + rows.length));
+            for (int row : rows) {
+                CelestialBody body = list.get(row);
+                if (nameIndex != null)
+                    nameIndex.add(body, count);
+                if (substringIndex != null)
+                    substringIndex.add(body);
+                if (fuzzyIndex != null)
+                    fuzzyIndex.add(body.getNameKey(), count);
+                added[count++] = body;
+            }
+        }
+
+        NameIndex getNameIndex() {
+            NameIndex index = nameIndex;
+            if (index == null) {
+                synchronized (this) {
+                    if (nameIndex == null) {
+                        index = new NameIndex();
+                        for (int i = 0; i < count; i++)
+                            index.add(added[i], i);
+                        nameIndex = index;
+                    }
+                    index = nameIndex;
+                }
+            }
+            return index;
+        }
+
+        SubstringIndex getSubstringIndex() {
+            SubstringIndex index = substringIndex;
+            if (index == null) {
+                synchronized (this) {
+                    if (substringIndex == null) {
+                        index = new SubstringIndex();
+                        for (int i = 0; i < count; i++)
+                            index.add(added[i]);
+                        substringIndex = index;
+                    }
+                    index = substringIndex;
+                }
+            }
+            return index;
+        }
+
+        FuzzyNameIndex getFuzzyIndex() {
+            FuzzyNameIndex index = fuzzyIndex;
+            if (index == null) {
+                synchronized (this) {
+                    if (fuzzyIndex == null) {
+                        index = new FuzzyNameIndex();
+                        for (int i = 0; i < count; i++)
+                            index.add(added[i].getNameKey(), i);
+                        fuzzyIndex = index;
+                    }
+                    index = fuzzyIndex;
+                }
+            }
+            return index;
+        }
+    }
+
+    /**
+     * The sorted list of one type of body and the range indexes over it, built on first use.
+     */
+    private static class Bodies<T extends CelestialBody> {
+        private final List<T> list;
+        private final AtomicReferenceArray<RangeIndex> ranges = new AtomicReferenceArray<>(ATTRIBUTES.length);
+
+        Bodies(ArrayList<T> list) {
+            this.list = Collections.unmodifiableList(list);
+        }
+
+        RangeIndex getRangeIndex(NumericAttribute attribute) {
+            RangeIndex index = ranges.get(attribute.ordinal());
+            if (index == null) {
+                index = RangeIndex.build(list, attribute);
+                ranges.set(attribute.ordinal(), index);
+            }
+            return index;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package am.aua.space_encyclopedia.data;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import am.aua.space_encyclopedia.core.*;
+
+/**
+ * The <code>CatalogWriter</code> class writes celestial objects to a data file in the comma-separated format
+ * read by <code>CatalogLoader</code>.
+ * <p>
+ * Every record is formatted with <code>FastFormat</code> into one reusable line buffer and encoded into a large
+ * byte buffer, which goes to the file through a <code>FileChannel</code> whenever it fills up. The bytes written
+ * are exactly those of a <code>PrintWriter</code> over a <code>FileWriter</code> printing the same records with
+ * <code>String.format</code>: the default charset, unmappable characters replaced, and the system line separator.
+ * <code>FastFormat</code> falls back to <code>String.format</code> for the numbers it cannot match on its own.
+ * <p>
+ * An object of type <code>CatalogWriter</code> contains:
+ * <ul>
+ *   <li><code>channel</code> - The open file</li>
+ *   <li><code>encoder</code> - The encoder of the default charset, for lines that are not plain ASCII</li>
+ *   <li><code>buffer</code> - The bytes not yet written to the file</li>
+ *   <li><code>line</code> - The record being formatted</li>
+ * </ul>
+ */
+class CatalogWriter implements Closeable {
+    /** The number of bytes collected before they are written to the file. */
+    static final int BUFFER_SIZE = 1024 * 1024;
+
+    private final FileChannel channel;
+    private final CharsetEncoder encoder;
+    private final boolean asciiCompatible;
+    private final String lineSeparator;
+    private final ByteBuffer buffer;
+    private final StringBuilder line = new StringBuilder(256);
+
+    /**
+     * Opens a file for writing, replacing its contents.
+     * @param fileName the data file to write
+     * @throws IOException if the file cannot be opened
+     */
+    CatalogWriter(String fileName) throws IOException {
+        Charset charset = Charset.defaultCharset();
+        this.channel = FileChannel.open(Paths.get(fileName),
+                StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.encoder = charset.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.asciiCompatible = charset.equals(StandardCharsets.UTF_8) || charset.equals(StandardCharsets.ISO_8859_1)
+                || charset.equals(StandardCharsets.US_ASCII);
+        this.lineSeparator = System.lineSeparator();
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    }
+
+    /**
+     * Writes a star as <code>Star,name,distance,mass,temperature,type,color,luminosity,size</code>.
+     * @param star the star to write
+     * @throws IOException if the file cannot be written
+     */
+    void write(Star star) throws IOException {
+        line.append("Star,").append(star.getName()).append(',');
+        appendCommon(star);
+        line.append(star.getColor()).append(',');
+        FastFormat.appendFixed(line, star.getLuminosity(), 2).append(',');
+        FastFormat.appendFixed(line, star.getSize(), 2);
+        endLine();
+    }
+
+    /**
+     * Writes a planet as <code>Planet,name,distance,mass,temperature,type,atmosphere,moons,surface,radius</code>.
+     * @param planet the planet to write
+     * @throws IOException if the file cannot be written
+     */
+    void write(Planet planet) throws IOException {
+        line.append("Planet,").append(planet.getName()).append(',');
+        appendCommon(planet);
+        line.append(planet.getAtmosphericComposition()).append(',');
+        FastFormat.appendInteger(line, planet.getNumberOfMoons()).append(',');
+        line.append(planet.getSurfaceConditions()).append(',');
+        FastFormat.appendFixed(line, planet.getRadius(), 2);
+        endLine();
+    }
+
+    /**
+     * Writes a galaxy as <code>Galaxy,name,distance,mass,temperature,type,stars,diameter,age</code>.
+     * @param galaxy the galaxy to write
+     * @throws IOException if the file cannot be written
+     */
+    void write(Galaxy galaxy) throws IOException {
+        line.append("Galaxy,").append(galaxy.getName()).append(',');
+        appendCommon(galaxy);
+        FastFormat.appendInteger(line, galaxy.getNumberOfStars()).append(',');
+        FastFormat.appendFixed(line, galaxy.getDiameter(), 2).append(',');
+        FastFormat.appendFixed(line, galaxy.getAge(), 2);
+        endLine();
+    }
+
+    /**
+     * Writes the remaining bytes and closes the file.
+     * @throws IOException if the file cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            encode(CharBuffer.allocate(0), true);
+            while (encoder.flush(buffer).isOverflow())
+                drain();
+            drain();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Appends the distance, mass, temperature and type shared by every record, each followed by a comma.
+     */
+    private void appendCommon(CelestialBody body) {
+        FastFormat.appendFixed(line, body.getDistanceFromEarth(), 6).append(',');
+        FastFormat.appendScientific(line, body.getMass(), 3).append(',');
+        FastFormat.appendFixed(line, body.getTemperature(), 2).append(',');
+        line.append(body.getType()).append(',');
+    }
+
+    /**
+     * Ends the current record and moves its bytes to the buffer.
+     * Plain ASCII lines are copied byte by byte; others go through the charset encoder.
+     */
+    private void endLine() throws IOException {
+        line.append(lineSeparator);
+        int length = line.length();
+        boolean ascii = asciiCompatible;
+        for (int i = 0; ascii && i < length; i++)
+            ascii = line.charAt(i) < 0x80;
+
+        if (ascii) {
+            if (buffer.remaining() < length)
+                drain();
+            if (buffer.remaining() < length) {
+                encode(CharBuffer.wrap(line), false);  // longer than the whole buffer
+            } else {
+                for (int i = 0; i < length; i++)
+                    buffer.put((byte) line.charAt(i));
+            }
+        } else {
+            encode(CharBuffer.wrap(line), false);
+        }
+        line.setLength(0);
+    }
+
+    private void encode(CharBuffer chars, boolean endOfInput) throws IOException {
+        while (encoder.encode(chars, buffer, endOfInput).isOverflow())
+            drain();
+    }
+
+    /**
+     * Writes the buffered bytes to the file and empties the buffer.
+     */
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+        buffer.clear();
+    }
+}
@@ -2,6 +2,13 @@ package am.aua.space_encyclopedia.data;
 
 import java.io.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
 import am.aua.space_encyclopedia.core.*;
 
 /**
@@ -9,15 +16,22 @@ import am.aua.space_encyclopedia.core.*;
  * (<code>Star</code>s, <code>Planet</code>s, <code>Galaxy</code>s), 
  * handles their persistence to and from a text file, and provides search and add functionality.
  * <p>
+ * The catalog is kept as a series of immutable <code>CatalogSnapshot</code>s. Every read uses the snapshot that is
+ * current when it starts and never takes a lock, so the GUI, the console and background importers can read while
+ * bodies are being added. Writers take turns: each one copies the lists it changes, builds the next snapshot and
+ * publishes it with a single volatile write. Use <code>getSnapshot</code> to run several reads on the same version.
+ * Imports that add bodies from many threads should collect them in a <code>CatalogImport</code> from
+ * <code>beginImport</code>, where adds from different threads do not wait for each other, and which publishes
+ * everything in one snapshot.
+ * <p>
  * An object of type <code>DataManager</code> contains:
  * <ul>
- *   <li>Fields of type <code>ArrayList</code> for storing collections in the system:
- *     <ul>
- *       <li><code>stars</code> - List of <code>Star</code> objects</li>
- *       <li><code>planets</code> - List of <code>Planet</code> objects</li>
- *       <li><code>galaxies</code> - List of <code>Galaxy</code> objects</li>
- *     </ul>
- *   </li>
+ *   <li>A field of type <code>CatalogSnapshot</code> holding the current version of the catalog:
+ *       the sorted lists of stars, planets and galaxies and the indexes built over them</li>
+ *   <li>Fields of type <code>HashSet</code> holding the same objects as the current lists, used by writers
+ *       for constant-time duplicate checks</li>
+ *   <li>A field of type <code>DetailsCache</code> holding the rendered details of the bodies viewed most recently</li>
+ *   <li>A list of <code>CatalogListener</code>s notified of every new snapshot</li>
  * </ul>
  */
 
@@ -26,37 +40,69 @@ public class DataManager {
      * The path to the file where celestial objects are stored.
      */
     private static final String DATA_FILE = "am/aua/space_encyclopedia/data/space_objects.txt";
+    /**
+     * The number of bodies whose rendered details are kept.
+     */
+    private static final int DETAILS_CACHE_SIZE = 256;
+    /**
+     * A streaming load adds the parsed bodies once they make up at least 1/LOAD_BATCH_RATIO of the catalog.
+     * Every add copies the lists, so letting the catalog grow geometrically copies each body only a few times.
+     */
+    private static final int LOAD_BATCH_RATIO = 2;
     
-    private ArrayList<Star> stars;
-    private ArrayList<Planet> planets;
-    private ArrayList<Galaxy> galaxies;
+    private volatile CatalogSnapshot snapshot;
+    private final Object writeLock = new Object();
+    private HashSet<Star> starSet;
+    private HashSet<Planet> planetSet;
+    private HashSet<Galaxy> galaxySet;
+    private DetailsCache detailsCache;
+    private final CopyOnWriteArrayList<CatalogListener> listeners = new CopyOnWriteArrayList<>();
 /** Constructs a DataManager and loads data from file or creates sample data if the file does not exist.*/
     public DataManager() {
-        stars = new ArrayList<>();
-        planets = new ArrayList<>();
-        galaxies = new ArrayList<>();
-        loadData();
+        this(true);
+    }
+/**
+ * Constructs a DataManager that loads its data right away, as <code>DataManager()</code> does, or starts empty.
+ * @param loadNow whether to load the data now; if false, call <code>loadData(ProgressListener)</code> later,
+ *                for example on a background thread
+ */
+    public DataManager(boolean loadNow) {
+        snapshot = new CatalogSnapshot();
+        starSet = new HashSet<>();
+        planetSet = new HashSet<>();
+        galaxySet = new HashSet<>();
+        detailsCache = new DetailsCache(DETAILS_CACHE_SIZE);
+        if (loadNow)
+            loadData();
+    }
+    /**
+    *Returns the current version of the catalog. It never changes, so several searches run on it agree with each other
+    *even while other threads add bodies.
+     * @return the current snapshot
+     */
+    public CatalogSnapshot getSnapshot() {
+        return snapshot;
     }
     /**
       *Returns the list of all stars.
-     * @return list of stars
+     * @return unmodifiable list of stars in the current snapshot
      */
-    public ArrayList<Star> getStars() {
-        return stars;
+    public List<Star> getStars() {
+        return snapshot.getStars();
     }
     /**
     *Returns the list of all planets.
-     * @return list of planets
+     * @return unmodifiable list of planets in the current snapshot
      */
-    public ArrayList<Planet> getPlanets() { 
-        return planets; 
+    public List<Planet> getPlanets() { 
+        return snapshot.getPlanets(); 
     }
     /**
     *Returns the list of all galaxies.
-     * @return list of galaxies
+     * @return unmodifiable list of galaxies in the current snapshot
      */
-    public ArrayList<Galaxy> getGalaxies() {
-        return galaxies;
+    public List<Galaxy> getGalaxies() {
+        return snapshot.getGalaxies();
     }
 
     /**
@@ -66,8 +112,10 @@ public class DataManager {
     public void addStar(Star newStar) {
         if (newStar == null) 
             throw new IllegalArgumentException("Planet cannot be null");
-        if (!stars.contains(newStar)) 
-            insertInOrder(stars, newStar);
+        synchronized (writeLock) {
+            if (starSet.add(newStar))
+                publish(snapshot.with(insertInOrder(snapshot.getStars(), newStar), null, null));
+        }
     }
 /**
 *Adds a planet to the collection in sorted order based on natural ordering.
@@ -77,8 +125,10 @@ public class DataManager {
     public void addPlanet(Planet newPlanet) {
          if (newPlanet == null) 
             throw new IllegalArgumentException("Planet cannot be null");
-        if (!planets.contains(newPlanet)) 
-            insertInOrder(planets, newPlanet);
+        synchronized (writeLock) {
+            if (planetSet.add(newPlanet))
+                publish(snapshot.with(null, insertInOrder(snapshot.getPlanets(), newPlanet), null));
+        }
     }
 /**
 *Adds a galaxy to the collection in sorted order based on natural ordering.
@@ -87,52 +137,337 @@ public class DataManager {
     public void addGalaxy(Galaxy newGalaxy) {
         if (newGalaxy == null) 
             throw new IllegalArgumentException("Planet cannot be null");
-        if (!galaxies.contains(newGalaxy)) 
-            insertInOrder(galaxies, newGalaxy);
+        synchronized (writeLock) {
+            if (galaxySet.add(newGalaxy))
+                publish(snapshot.with(null, null, insertInOrder(snapshot.getGalaxies(), newGalaxy)));
+        }
     }
     /**
-    *Inserts an object into the given list maintaining ascending order using compareTo().
-     * @param list - the list to insert into
+    *Adds many celestial objects at once. Stars, planets and galaxies are separated, sorted once with a parallel sort
+    *and merged into their collections; names already present (or repeated in <code>bodies</code>) keep their first occurrence.
+    *All of them become visible to readers together, in one new snapshot.
+     * @param bodies the celestial objects to add
+     * @throws IllegalArgumentException if bodies is null or contains null
+     */
+    public void addAll(Collection<? extends CelestialBody> bodies) {
+        if (bodies == null)
+            throw new IllegalArgumentException("Collection of celestial bodies cannot be null");
+
+        ArrayList<Star> newStars = new ArrayList<>();
+        ArrayList<Planet> newPlanets = new ArrayList<>();
+        ArrayList<Galaxy> newGalaxies = new ArrayList<>();
+        for (CelestialBody body : bodies) {
+            if (body instanceof Star) {
+                newStars.add((Star) body);
+            } else if (body instanceof Planet) {
+                newPlanets.add((Planet) body);
+            } else if (body instanceof Galaxy) {
+                newGalaxies.add((Galaxy) body);
+            } else if (body == null) {
+                throw new IllegalArgumentException("Celestial body cannot be null");
+            }
+        }
+
+        synchronized (writeLock) {
+            CatalogSnapshot current = snapshot;
+            ListChange<Star> stars = mergeInOrder(current.getStars(), starSet, newStars);
+            ListChange<Planet> planets = mergeInOrder(current.getPlanets(), planetSet, newPlanets);
+            ListChange<Galaxy> galaxies = mergeInOrder(current.getGalaxies(), galaxySet, newGalaxies);
+            if (stars != null || planets != null || galaxies != null)
+                publish(current.with(stars, planets, galaxies));
+        }
+    }
+    /**
+    *Registers a listener to be notified of every change to the catalog from now on. Listeners are called on the
+    *writing thread, in the order of the changes, and must return quickly.
+     * @param listener the listener to add
+     * @throws IllegalArgumentException if listener is null
+     */
+    public void addCatalogListener(CatalogListener listener) {
+        if (listener == null)
+            throw new IllegalArgumentException("Listener cannot be null");
+        listeners.add(listener);
+    }
+    /**
+    *Stops notifying a listener.
+     * @param listener the listener to remove
+     */
+    public void removeCatalogListener(CatalogListener listener) {
+        listeners.remove(listener);
+    }
+    /**
+    *Makes a new snapshot current and notifies the listeners. Called only while holding the write lock, so the
+    *listeners see the changes one at a time and in order.
+     * @param next the snapshot to publish
+     */
+    private void publish(CatalogSnapshot next) {
+        CatalogSnapshot previous = snapshot;
+        snapshot = next;
+        for (CatalogListener listener : listeners)
+            listener.catalogChanged(previous, next);
+    }
+    /**
+    *Starts an import that many threads can add bodies to at the same time without waiting for each other.
+    *Nothing is visible to readers until <code>commit</code> is called on the import, which adds all of its bodies at once.
+     * @return a new, empty import into this catalog
+     */
+    public CatalogImport beginImport() {
+        return new CatalogImport(this);
+    }
+    /**
+    *Returns a copy of the given sorted list with an object inserted in ascending order using compareTo().
+    *The position is found with a binary search.
+     * @param list - the sorted list, which is not changed
      * @param newObj the object to insert
      * @param <T> - the type of celestial object
+     * @return the new sorted list and the row of the object in it
+     */
+    private <T extends CelestialBody> ListChange<T> insertInOrder(List<T> list, T newObj) {
+        int pos = Collections.binarySearch(list, newObj);
+        pos = pos < 0 ? -pos - 1 : pos;
+        ArrayList<T> copy = new ArrayList<>(list.size() + 1);
+        copy.addAll(list.subList(0, pos));
+        copy.add(newObj);
+        copy.addAll(list.subList(pos, list.size()));
+        return new ListChange<>(copy, new int[] { pos });
+    }
+    /**
+    *Drops the new objects whose names are already present, sorts the rest once and merges them with the given sorted list into a new list.
+    *Duplicates are checked against the membership set in encounter order, so the object met first is kept and objects already in the list always win.
+     * @param list - the sorted list to merge with, which is not changed
+     * @param set - the membership set holding the same objects as list; accepted objects are added to it
+     * @param additions the objects to add, in any order
+     * @param <T> - the type of celestial object
+     * @return the merged list and the rows of the added objects in it, or null if no object was added
      */
-    private <T extends CelestialBody> void insertInOrder(ArrayList<T> list, T newObj) {
-        int pos = 0;
-        // to find the correct position
-        while (pos < list.size() && newObj.compareTo(list.get(pos)) > 0) {
-            pos++;
+    @SuppressWarnings("unchecked")
+    private <T extends CelestialBody> ListChange<T> mergeInOrder(List<T> list, HashSet<T> set, ArrayList<T> additions) {
+        ArrayList<T> accepted = new ArrayList<>(additions.size());
+        for (T obj : additions) {
+            if (set.add(obj))
+                accepted.add(obj);
+        }
+        if (accepted.isEmpty())
+            return null;
+
+        CelestialBody[] sorted = accepted.toArray(new CelestialBody[0]);
+        Arrays.parallelSort(sorted);
+
+        ArrayList<T> merged = new ArrayList<>(list.size() + sorted.length);
+        int[] rows = new int[sorted.length];
+        int i = 0;
+        int j = 0;
+        while (i < list.size() || j < sorted.length) {
+            if (j == sorted.length || (i < list.size() && list.get(i).compareTo(sorted[j]) <= 0)) {
+                merged.add(list.get(i++));
+            } else {
+                rows[j] = merged.size();
+                merged.add((T) sorted[j++]);
+            }
         }
-        list.add(pos, newObj);
+        return new ListChange<>(merged, rows);
     }
  /**
- * Searches for a celestial body by name across all collections (stars, planets, and galaxies).
+ * Searches for a celestial body by name across all collections (stars, planets, and galaxies) using the name index.
+ * If several types share the name, the star is returned first, then the planet, then the galaxy;
+ * use <code>findCelestialBodiesByName</code> to get all of them.
  * @param name The name of the celestial body to search for (must not be <code>null</code> or empty)
  * @return The found <code>CelestialBody</code> object, or <code>null</code> if not found
  */
     public CelestialBody findCelestialBodyByName(String name) {
-        if (name == null || name.trim().isEmpty())
-            return null;
-
-        // Search in stars
-        for (Star star : stars)
-            if (star.getName().equalsIgnoreCase(name.trim()))
-                return star;
-
-        // Search in planets
-        for (Planet planet : planets)
-            if (planet.getName().equalsIgnoreCase(name.trim()))
-                return planet;
-
-        // Search in galaxies
-        for (Galaxy galaxy : galaxies)
-            if (galaxy.getName().equalsIgnoreCase(name.trim()))
-                return galaxy;
+        return snapshot.findCelestialBodyByName(name);
+    }
+ /**
+ * Searches for a celestial body of the given type by name.
+ * @param name The name of the celestial body to search for
+ * @param type The class of the body (<code>Star.class</code>, <code>Planet.class</code> or <code>Galaxy.class</code>)
+ * @param <T> the type of celestial body
+ * @return The found object, or <code>null</code> if there is no body of that type with that name
+ */
+    public <T extends CelestialBody> T findCelestialBodyByName(String name, Class<T> type) {
+        return snapshot.findCelestialBodyByName(name, type);
+    }
+ /**
+ * Returns every celestial body with the given name, which is more than one when the name is used by several types.
+ * @param name The name to search for
+ * @return list of matching bodies (stars first, then planets, then galaxies), empty if none
+ */
+    public List<CelestialBody> findCelestialBodiesByName(String name) {
+        return snapshot.findCelestialBodiesByName(name);
+    }
+ /**
+ * Returns a page of stars in name order. Pass <code>null</code> for the first page and then the cursor of each page
+ * to get the next one; stars added in the meantime before the cursor do not shift the pages.
+ * @param cursor The cursor of the previous page, or <code>null</code> for the first page
+ * @param pageSize The maximum number of stars on the page (must be positive)
+ * @return the page
+ */
+    public Page<Star> getStarsPage(String cursor, int pageSize) {
+        return snapshot.getStarsPage(cursor, pageSize);
+    }
+ /**
+ * Returns a page of planets in name order, as <code>getStarsPage</code> does for stars.
+ * @param cursor The cursor of the previous page, or <code>null</code> for the first page
+ * @param pageSize The maximum number of planets on the page (must be positive)
+ * @return the page
+ */
+    public Page<Planet> getPlanetsPage(String cursor, int pageSize) {
+        return snapshot.getPlanetsPage(cursor, pageSize);
+    }
+ /**
+ * Returns a page of galaxies in name order, as <code>getStarsPage</code> does for stars.
+ * @param cursor The cursor of the previous page, or <code>null</code> for the first page
+ * @param pageSize The maximum number of galaxies on the page (must be positive)
+ * @return the page
+ */
+    public Page<Galaxy> getGalaxiesPage(String cursor, int pageSize) {
+        return snapshot.getGalaxiesPage(cursor, pageSize);
+    }
+ /**
+ * Searches for many names at once, which is much faster than calling <code>findCelestialBodyByName</code> for each:
+ * every name is normalized once and all of them are resolved against the same snapshot, in parallel for large batches.
+ * @param names The names to search for
+ * @return one entry per name, in input order: the body found, or an empty <code>Optional</code> for a miss
+ * @throws IllegalArgumentException if names is null
+ */
+    public List<Optional<CelestialBody>> findAllByName(Collection<String> names) {
+        return snapshot.findAllByName(names);
+    }
+ /**
+ * Returns the names that are shared by bodies of different types, for example a star and a galaxy with the same name.
+ * @return list of colliding names
+ */
+    public List<String> getNameCollisions() {
+        return snapshot.getNameCollisions();
+    }
 
-        return null;
+    /**
+    *Returns the celestial bodies whose names contain the given text (case-insensitive), answered from the substring index.
+     * @param term the text to look for
+     * @return list of matching bodies: stars, then planets, then galaxies, each sorted by name
+     * @throws IllegalArgumentException if term is null
+     */
+    public List<CelestialBody> findCelestialBodiesContaining(String term) {
+        return snapshot.findCelestialBodiesContaining(term);
     }
-    
     /**
-    *Loads celestial objects from a data file or creates and saves sample data if the file does not exist.*/
+    *Returns the celestial bodies whose names are closest to the given, possibly misspelled, name ("did you mean").
+    *The allowed number of edits grows with the length of the name: 1 up to 4 characters, 2 up to 8, and 3 beyond.
+     * @param name the name to look for
+     * @param limit the maximum number of names to return (must be positive)
+     * @return list of bodies, closest name first
+     * @throws IllegalArgumentException if name is null or limit is not positive
+     */
+    public List<CelestialBody> findSimilarCelestialBodies(String name, int limit) {
+        return snapshot.findSimilarCelestialBodies(name, limit);
+    }
+    /**
+    *Returns the celestial bodies whose names are within the given edit distance of the given name (case-insensitive),
+    *closest first. The search runs on a BK-tree, so only a small part of the names is compared.
+     * @param name the name to look for
+     * @param maxDistance the largest number of inserted, deleted or replaced characters allowed
+     * @param limit the maximum number of names to return (must be positive); a name used by several types counts once
+     * @return list of bodies, closest name first
+     * @throws IllegalArgumentException if name is null, maxDistance is negative or limit is not positive
+     */
+    public List<CelestialBody> findSimilarCelestialBodies(String name, int maxDistance, int limit) {
+        return snapshot.findSimilarCelestialBodies(name, maxDistance, limit);
+    }
+    /**
+    *Returns the cache of rendered details, used to show a body's summary and facts without formatting them again.
+     * @return the details cache
+     */
+    public DetailsCache getDetailsCache() {
+        return detailsCache;
+    }
+    /**
+    *Returns the stars whose attributes all lie in the given ranges, for example stars within 50 light-years hotter than 6000 K.
+     * @param ranges the ranges to satisfy; with no ranges every star is returned
+     * @return list of matching stars, sorted by name
+     * @throws IllegalArgumentException if a range uses an attribute that stars do not have
+     */
+    public List<Star> findStarsInRange(RangePredicate... ranges) {
+        return snapshot.findStarsInRange(ranges);
+    }
+    /**
+    *Returns the planets whose attributes all lie in the given ranges.
+     * @param ranges the ranges to satisfy; with no ranges every planet is returned
+     * @return list of matching planets, sorted by name
+     * @throws IllegalArgumentException if a range uses an attribute that planets do not have
+     */
+    public List<Planet> findPlanetsInRange(RangePredicate... ranges) {
+        return snapshot.findPlanetsInRange(ranges);
+    }
+    /**
+    *Returns the galaxies whose attributes all lie in the given ranges.
+     * @param ranges the ranges to satisfy; with no ranges every galaxy is returned
+     * @return list of matching galaxies, sorted by name
+     * @throws IllegalArgumentException if a range uses an attribute that galaxies do not have
+     */
+    public List<Galaxy> findGalaxiesInRange(RangePredicate... ranges) {
+        return snapshot.findGalaxiesInRange(ranges);
+    }
+    /**
+    *Returns the stars whose text attribute has exactly the given value, for example all stars of color "Yellow".
+     * @param attribute the attribute to compare
+     * @param value the value to look for (case-sensitive)
+     * @return list of matching stars, sorted by name
+     * @throws IllegalArgumentException if stars do not have the attribute
+     */
+    public List<Star> findStarsWhere(TextAttribute attribute, String value) {
+        return snapshot.findStarsWhere(attribute, value);
+    }
+    /**
+    *Returns the planets whose text attribute has exactly the given value, for example all "Terrestrial" planets.
+     * @param attribute the attribute to compare
+     * @param value the value to look for (case-sensitive)
+     * @return list of matching planets, sorted by name
+     * @throws IllegalArgumentException if planets do not have the attribute
+     */
+    public List<Planet> findPlanetsWhere(TextAttribute attribute, String value) {
+        return snapshot.findPlanetsWhere(attribute, value);
+    }
+    /**
+    *Returns the galaxies whose text attribute has exactly the given value, for example all "Spiral" galaxies.
+     * @param attribute the attribute to compare
+     * @param value the value to look for (case-sensitive)
+     * @return list of matching galaxies, sorted by name
+     * @throws IllegalArgumentException if galaxies do not have the attribute
+     */
+    public List<Galaxy> findGalaxiesWhere(TextAttribute attribute, String value) {
+        return snapshot.findGalaxiesWhere(attribute, value);
+    }
+    /**
+    *Returns the stars whose names start with the given prefix (case-insensitive), in sorted order.
+     * @param prefix the beginning of the name
+     * @param limit the maximum number of stars to return (must be positive)
+     * @return list of matching stars
+     */
+    public List<Star> findStarsByPrefix(String prefix, int limit) {
+        return snapshot.findStarsByPrefix(prefix, limit);
+    }
+    /**
+    *Returns the planets whose names start with the given prefix (case-insensitive), in sorted order.
+     * @param prefix the beginning of the name
+     * @param limit the maximum number of planets to return (must be positive)
+     * @return list of matching planets
+     */
+    public List<Planet> findPlanetsByPrefix(String prefix, int limit) {
+        return snapshot.findPlanetsByPrefix(prefix, limit);
+    }
+    /**
+    *Returns the galaxies whose names start with the given prefix (case-insensitive), in sorted order.
+     * @param prefix the beginning of the name
+     * @param limit the maximum number of galaxies to return (must be positive)
+     * @return list of matching galaxies
+     */
+    public List<Galaxy> findGalaxiesByPrefix(String prefix, int limit) {
+        return snapshot.findGalaxiesByPrefix(prefix, limit);
+    }
+
+    /**
+    *Loads celestial objects from a data file or creates and saves sample data if the file does not exist.
+    *The file is parsed in parallel by a <code>CatalogLoader</code>; lines with invalid numbers or missing data are reported and skipped.*/
     private void loadData() {
         if (!new File(DATA_FILE).exists()) {
             System.out.println("Creating and loading sample celestial objects...");
@@ -141,75 +476,49 @@ public class DataManager {
             return;
         }
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(DATA_FILE))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                CelestialBody body = parseLine(line);
-                if (body != null) {
-                    if (body instanceof Star) {
-                        addStar((Star) body);
-                    } else if (body instanceof Planet) {
-                        addPlanet((Planet) body);
-                    } else if (body instanceof Galaxy) {
-                        addGalaxy((Galaxy) body);
-                    }
-                }
-            }
+        try {
+            CatalogLoader.Result result = new CatalogLoader(DATA_FILE).load();
+            for (CatalogLoader.ParseError error : result.getErrors())
+                System.out.println("Error parsing " + error);
+
+            addAll(result.getBodies());
         } catch (IOException e) {
         System.out.println("Error loading data from " + DATA_FILE + ": " + e.getMessage());
     }
     }
-    /**
-    *Parses a line of text from the data file and converts it into a celestial object.
-     * @param line the line to parse
-     * @return the parsed CelestialBody object, or null if invalid
-     */
-    private CelestialBody parseLine(String line) {
-        String[] parts = line.split("\\s*,\\s*");
-        try {
-            switch (parts[0]) {
-                case "Star":
-                    return new Star(
-                            parts[1],                     // name
-                            Double.parseDouble(parts[2]), // distanceFromEarth
-                            Double.parseDouble(parts[3]),//mass
-                            Double.parseDouble(parts[4]), // temperature
-                            parts[5], //type
-                            parts[6],                     // color
-                            Double.parseDouble(parts[7]), // luminosity
-                            Double.parseDouble(parts[8])  // size
-                    );
-                case "Planet":
-                    return new Planet(
-                            parts[1],                    // name
-                            Double.parseDouble(parts[2]), // distance
-                            Double.parseDouble(parts[3]), // mass
-                            Double.parseDouble(parts[4]), // temp
-                            parts[5],                    // type
-                            parts[6],                    // atmosphere
-                            Integer.parseInt(parts[7]),   // moons
-                            parts[8],                    // surface
-                            Double.parseDouble(parts[9]) // radius
-                    );
-                case "Galaxy":
-                    return new Galaxy(
-                            parts[1],                    // name
-                            Double.parseDouble(parts[2]), // distance
-                            Double.parseDouble(parts[3]), // mass
-                            Double.parseDouble(parts[4]), // temp
-                            parts[5],                    // type
-                            Long.parseLong(parts[6]),          // number of stars
-                            Double.parseDouble(parts[7]),      // diameter
-                            Double.parseDouble(parts[8])   // age
+/**
+*Loads the data file chunk by chunk, adding the bodies as they are parsed, so readers can use the partial catalog
+*long before the whole file is read. Chunks are collected until they make up a good part of the catalog and then
+*added together in one snapshot. If the file does not exist, sample data is created as <code>DataManager()</code> does.
+ * @param listener notified on the loading thread after each chunk has been parsed
+ * @throws IllegalArgumentException if listener is null
+ */
+    public void loadData(ProgressListener listener) {
+        if (listener == null)
+            throw new IllegalArgumentException("Listener cannot be null");
+        if (!new File(DATA_FILE).exists()) {
+            loadData();
+            listener.progressChanged(1, 1);
+            return;
+        }
 
-                    );
-                default:
-                    return null;
-            }
-        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
-            System.out.println("Error parsing line (invalid number or missing data): " + line);
-            return null;
+        ArrayList<CelestialBody> pending = new ArrayList<>();
+        try {
+            new CatalogLoader(DATA_FILE).load((chunk, bytesRead, totalBytes) -> {
+                for (CatalogLoader.ParseError error : chunk.getErrors())
+                    System.out.println("Error parsing " + error);
+                pending.addAll(chunk.getBodies());
+                if (bytesRead == totalBytes || pending.size() * LOAD_BATCH_RATIO >= snapshot.size()) {
+                    addAll(pending);
+                    pending.clear();
+                }
+                listener.progressChanged(bytesRead, totalBytes);
+            });
+        } catch (IOException e) {
+            System.out.println("Error loading data from " + DATA_FILE + ": " + e.getMessage());
         }
+        if (!pending.isEmpty())
+            addAll(pending);  // what was parsed before a read error
     }
     /**
     *Creates initial sample data (Sun, Earth, Milky Way) and adds them to the respective lists.
@@ -220,22 +529,35 @@ public class DataManager {
         addGalaxy(new Galaxy("Milky Way",0.0,1.5e42,0,"Spiral", 250_000_000_000L,105700.0,13.51));
     }
 /**
-*Saves all celestial objects to the data file in comma-separated format.
+*Saves all celestial objects of the current snapshot to the data file in comma-separated format.
+*The records are formatted straight into a large buffer and written in blocks; see <code>CatalogWriter</code>.
 */
     public void saveData() {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(DATA_FILE))) {
-            for (Star star : stars) {
-                writer.println(String.format("Star,%s,%.6f,%.3e,%.2f,%s,%s,%.2f,%.2f",star.getName(),star.getDistanceFromEarth(),star.getMass(),star.getTemperature(),star.getType(),star.getColor(), star.getLuminosity(),star.getSize()));
+        CatalogSnapshot current = snapshot;
+        try (CatalogWriter writer = new CatalogWriter(DATA_FILE)) {
+            for (Star star : current.getStars()) {
+                writer.write(star);
             }
-            for (Planet planet : planets) {
-                writer.println(String.format("Planet,%s,%.6f,%.3e,%.2f,%s,%s,%d,%s,%.2f", planet.getName(), planet.getDistanceFromEarth(), planet.getMass(), planet.getTemperature(), planet.getType(), planet.getAtmosphericComposition(), planet.getNumberOfMoons(), planet.getSurfaceConditions(), planet.getRadius()));
+            for (Planet planet : current.getPlanets()) {
+                writer.write(planet);
             }
-            for (Galaxy galaxy : galaxies) {
-                writer.println(String.format("Galaxy,%s,%.6f,%.3e,%.2f,%s,%d,%.2f,%.2f",galaxy.getName(),galaxy.getDistanceFromEarth(), galaxy.getMass(), galaxy.getTemperature(),galaxy.getType(), galaxy.getNumberOfStars(),galaxy.getDiameter(), galaxy.getAge()));
+            for (Galaxy galaxy : current.getGalaxies()) {
+                writer.write(galaxy);
             }
         } catch (IOException e) {
             System.out.println("Error saving data to " + DATA_FILE + ": " + e.getMessage());
         }
     }
-
+    /**
+     * Receives the progress of <code>loadData(ProgressListener)</code>.
+     */
+    public interface ProgressListener {
+        /**
+         * Called after part of the data file has been parsed; the bodies read so far are then in the catalog
+         * or about to be added with the next chunks.
+         * @param bytesRead the number of bytes of the file parsed so far
+         * @param totalBytes the size of the file
+         */
+        void progressChanged(long bytesRead, long totalBytes);
+    }
 }
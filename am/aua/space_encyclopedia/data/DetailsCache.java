@@ -0,0 +1,145 @@
+package am.aua.space_encyclopedia.data;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import am.aua.space_encyclopedia.core.*;
+
+/**
+ * The <code>DetailsCache</code> class remembers the rendered summary (<code>toString</code>) and facts
+ * (<code>showFacts</code>) of the celestial bodies viewed most recently, so opening the same body again
+ * does not format all of its numbers again.
+ * <p>
+ * Entries are keyed by the identity of the body object, not by its name. Celestial bodies cannot be changed,
+ * so a cached text stays correct for as long as its object exists; a body that is replaced by a new object
+ * with the same name simply misses the cache, and its old entry ages out. When the cache is full, the entry
+ * used least recently is dropped. All methods are thread-safe.
+ * <p>
+ * An object of type <code>DetailsCache</code> contains:
+ * <ul>
+ *   <li><code>capacity</code> - The largest number of bodies kept</li>
+ *   <li><code>entries</code> - A <code>LinkedHashMap</code> in access order from each body to its rendered text</li>
+ * </ul>
+ */
+public class DetailsCache {
+    private final int capacity;
+    private final LinkedHashMap<IdentityKey, Rendered> entries;
+
+    /**
+     * Constructs an empty cache.
+     * @param capacity the largest number of bodies to keep (must be positive)
+     * @throws IllegalArgumentException if capacity is not positive
+     */
+    public DetailsCache(int capacity) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("Capacity must be positive.");
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<IdentityKey, Rendered> eldest) {
+                return size() > DetailsCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the summary of a body, as <code>body.toString()</code> would.
+     * @param body the body to describe
+     * @return the summary
+     * @throws IllegalArgumentException if body is null
+     */
+    public String getSummary(CelestialBody body) {
+        return get(body).summary;
+    }
+
+    /**
+     * Returns the additional facts of a body, as <code>body.showFacts()</code> would.
+     * @param body the body to describe
+     * @return the facts
+     * @throws IllegalArgumentException if body is null
+     */
+    public String getFacts(CelestialBody body) {
+        return get(body).facts;
+    }
+
+    /**
+     * Drops the cached text of a body, if any.
+     * @param body the body to forget
+     */
+    public synchronized void invalidate(CelestialBody body) {
+        entries.remove(new IdentityKey(body));
+    }
+
+    /**
+     * Drops every cached text.
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Returns the number of bodies whose text is cached.
+     * @return the number of entries
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the largest number of bodies kept.
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    private Rendered get(CelestialBody body) {
+        if (body == null)
+            throw new IllegalArgumentException("Celestial body cannot be null");
+        IdentityKey key = new IdentityKey(body);
+        synchronized (this) {
+            Rendered rendered = entries.get(key);
+            if (rendered != null)
+                return rendered;
+        }
+        // rendered outside the lock; two threads may both render a body, and either result is correct
+        Rendered rendered = new Rendered(body.toString(), body.showFacts());
+        synchronized (this) {
+            entries.put(key, rendered);
+        }
+        return rendered;
+    }
+
+    /**
+     * Wraps a body so that it is compared by identity instead of <code>equals</code>, which compares names.
+     */
+    private static class IdentityKey {
+        private final CelestialBody body;
+
+        IdentityKey(CelestialBody body) {
+            this.body = body;
+        }
+
+        @Override
+        public boolean equals(Object otherObject) {
+            return otherObject instanceof IdentityKey && ((IdentityKey) otherObject).body == body;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(body);
+        }
+    }
+
+    /**
+     * The rendered text of one body.
+     */
+    private static class Rendered {
+        private final String summary;
+        private final String facts;
+
+        Rendered(String summary, String facts) {
+            this.summary = summary;
+            this.facts = facts;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package am.aua.space_encyclopedia.data;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * The <code>FuzzyNameIndex</code> class finds the names closest to a possibly misspelled name.
+ * <p>
+ * The normalized names are kept in a BK-tree: every child of a node is stored under its edit (Levenshtein)
+ * distance from that node. By the triangle inequality, a search for names within distance <code>r</code> of a term
+ * at distance <code>d</code> from a node only has to visit the children stored under <code>d - r</code> to
+ * <code>d + r</code>, so most of the tree is never looked at. When enough results are found the radius shrinks
+ * to the distance of the worst result kept.
+ * <p>
+ * One tree serves every version of a catalog. Each node keeps the number of the body that first brought its name,
+ * the count of bodies added before it, and a search takes the number of bodies its version holds and skips the
+ * nodes added later. A child is always added after its parent, so such a node's whole subtree is skipped with it.
+ * Names are added by one thread at a time while any number of threads search: a node's children are replaced by
+ * a copy with the new child, never changed in place.
+ * <p>
+ * An object of type <code>FuzzyNameIndex</code> contains:
+ * <ul>
+ *   <li><code>root</code> - The root <code>Node</code> of the BK-tree, or null if no name was added</li>
+ * </ul>
+ */
+class FuzzyNameIndex {
+    private volatile Node root;
+
+    /**
+     * Adds a name to the index. Adding a name whose key is already present has no effect.
+     * @param key the normalized name key
+     * @param number the number of bodies added before the one with this name
+     */
+    void add(String key, int number) {
+        if (root == null) {
+            root = new Node(key, 0, number);
+            return;
+        }
+        Node node = root;
+        while (true) {
+            int distance = distance(key, node.key);
+            if (distance == 0)
+                return;
+            Node child = node.getChild(distance);
+            if (child == null) {
+                node.addChild(new Node(key, distance, number));
+                return;
+            }
+            node = child;
+        }
+    }
+
+    /**
+     * Finds the names closest to the given key.
+     * @param key the normalized name key to look for
+     * @param maxDistance the largest edit distance allowed
+     * @param limit the maximum number of names to return (must be positive)
+     * @param count the number of bodies in the version searched
+     * @return list of name keys, closest first and alphabetically among equal distances
+     */
+    List<String> findClosest(String key, int maxDistance, int limit, int count) {
+        // worst match on top, so it can be dropped when a better one is found
+        PriorityQueue<Match> best = new PriorityQueue<>(limit + 1, (a, b) -> b.compareTo(a));
+        int radius = maxDistance;
+
+        ArrayDeque<Node> pending = new ArrayDeque<>();
+        Node first = root;
+        if (first != null && first.number < count)
+            pending.push(first);
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            int distance = distance(key, node.key);
+            if (distance <= radius) {
+                best.add(new Match(node.key, distance));
+                if (best.size() > limit)
+                    best.poll();
+                if (best.size() == limit)
+                    radius = best.peek().distance;
+            }
+            for (Node child : node.children)
+                if (child.number < count && child.edge >= distance - radius && child.edge <= distance + radius)
+                    pending.push(child);
+        }
+
+        Match[] sorted = best.toArray(new Match[0]);
+        Arrays.sort(sorted);
+        ArrayList<String> keys = new ArrayList<>(sorted.length);
+        for (Match match : sorted)
+            keys.add(match.key);
+        return keys;
+    }
+
+    /**
+     * Computes the Levenshtein distance between two strings with two rolling rows.
+     */
+    static int distance(String a, String b) {
+        if (a.length() < b.length()) {
+            String swap = a;
+            a = b;
+            b = swap;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++)
+            previous[j] = j;
+
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            char c = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (c == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    /**
+     * A node of the BK-tree with its distance from its parent and its children.
+     */
+    private static class Node {
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        private final String key;
+        private final int edge;
+        private final int number;
+        private volatile Node[] children = NO_CHILDREN;
+
+        Node(String key, int edge, int number) {
+            this.key = key;
+            this.edge = edge;
+            this.number = number;
+        }
+
+        Node getChild(int distance) {
+            for (Node child : children)
+                if (child.edge == distance)
+                    return child;
+            return null;
+        }
+
+        void addChild(Node child) {
+            Node[] grown = Arrays.copyOf(children, children.length + 1);
+            grown[children.length] = child;
+            children = grown;
+        }
+    }
+
+    /**
+     * A name found by a search, ordered by distance and then alphabetically.
+     */
+    private static class Match implements Comparable<Match> {
+        private final String key;
+        private final int distance;
+
+        Match(String key, int distance) {
+            this.key = key;
+            this.distance = distance;
+        }
+
+        @Override
+        public int compareTo(Match other) {
+            if (distance != other.distance)
+                return Integer.compare(distance, other.distance);
+            return key.compareTo(other.key);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package am.aua.space_encyclopedia.data;
+
+/**
+ * The <code>LineTokenizer</code> class splits a line of the data file into comma-separated fields
+ * without building a regular expression or allocating a <code>String[]</code> per line.
+ * <p>
+ * It follows the same rules as <code>line.split("\\s*,\\s*")</code>: whitespace around each comma is dropped,
+ * whitespace at the very start and end of the line is kept, trailing empty fields are removed,
+ * and a line without any comma is a single field.
+ * <p>
+ * Numeric fields are read in place with a <code>NumberParser</code>. A missing field or a malformed number does not
+ * throw; the first problem of the line is recorded and returned by <code>getError</code>, and the field reads as 0.
+ * <p>
+ * A <code>LineTokenizer</code> is reused from line to line and is not thread-safe.
+ */
+class LineTokenizer {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private String line;
+    private int[] starts = new int[INITIAL_CAPACITY];
+    private int[] ends = new int[INITIAL_CAPACITY];
+    private int count;
+    private String error;
+    private final NumberParser numbers = new NumberParser();
+
+    /**
+     * Splits the given line into fields, replacing the fields of the previous line.
+     * @param line the line to split (must not be <code>null</code>)
+     * @return the number of fields found
+     */
+    int tokenize(String line) {
+        this.line = line;
+        count = 0;
+        error = null;
+        int length = line.length();
+        int start = 0;
+        boolean sawComma = false;
+
+        for (int i = 0; i < length; i++) {
+            if (line.charAt(i) != ',')
+                continue;
+            sawComma = true;
+            int end = i;
+            while (end > start && isWhitespace(line.charAt(end - 1)))
+                end--;
+            addField(start, end);
+
+            start = i + 1;
+            while (start < length && isWhitespace(line.charAt(start)))
+                start++;
+            i = start - 1;
+        }
+
+        if (!sawComma) {
+            addField(0, length);
+            return count;
+        }
+        addField(start, length);
+
+        // String.split drops trailing empty strings
+        while (count > 0 && starts[count - 1] == ends[count - 1])
+            count--;
+        return count;
+    }
+
+    /**
+     * Returns the number of fields of the current line.
+     * @return the field count
+     */
+    int getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the first problem found in the current line by <code>requireFields</code> or by reading a field.
+     * @return a description of the problem, or null if there was none
+     */
+    String getError() {
+        return error;
+    }
+
+    /**
+     * Checks that the current line has at least the given number of fields, recording an error if it does not.
+     * @param required the number of fields needed
+     * @return true if the line has enough fields
+     */
+    boolean requireFields(int required) {
+        if (count >= required)
+            return true;
+        fail("expected " + required + " fields but found " + count);
+        return false;
+    }
+
+    /**
+     * Returns the given field of the current line.
+     * @param index the field index
+     * @return the field text, or null if the line does not have that many fields (an error is recorded)
+     */
+    String get(int index) {
+        if (!hasField(index))
+            return null;
+        return line.substring(starts[index], ends[index]);
+    }
+
+    /**
+     * Reads the given field of the current line as a <code>double</code>, like <code>Double.parseDouble</code>.
+     * @param index the field index
+     * @return the value, or 0 if the field is missing or not a number (an error is recorded)
+     */
+    double getDouble(int index) {
+        if (!hasField(index))
+            return 0;
+        if (numbers.parseDouble(line, starts[index], ends[index]))
+            return numbers.getDouble();
+        failNumber(index);
+        return 0;
+    }
+
+    /**
+     * Reads the given field of the current line as an <code>int</code>, like <code>Integer.parseInt</code>.
+     * @param index the field index
+     * @return the value, or 0 if the field is missing or not a whole number (an error is recorded)
+     */
+    int getInt(int index) {
+        if (!hasField(index))
+            return 0;
+        if (numbers.parseInt(line, starts[index], ends[index]))
+            return (int) numbers.getLong();
+        failNumber(index);
+        return 0;
+    }
+
+    /**
+     * Reads the given field of the current line as a <code>long</code>, like <code>Long.parseLong</code>.
+     * @param index the field index
+     * @return the value, or 0 if the field is missing or not a whole number (an error is recorded)
+     */
+    long getLong(int index) {
+        if (!hasField(index))
+            return 0;
+        if (numbers.parseLong(line, starts[index], ends[index]))
+            return numbers.getLong();
+        failNumber(index);
+        return 0;
+    }
+
+    /**
+     * Checks whether the given field of the current line equals the given text.
+     * @param index the field index
+     * @param text the text to compare with
+     * @return true if the field exists and matches exactly
+     */
+    boolean fieldEquals(int index, String text) {
+        if (index < 0 || index >= count)
+            return false;
+        int length = ends[index] - starts[index];
+        return length == text.length() && line.regionMatches(starts[index], text, 0, length);
+    }
+
+    private boolean hasField(int index) {
+        if (index >= 0 && index < count)
+            return true;
+        fail("missing field " + (index + 1));
+        return false;
+    }
+
+    private void failNumber(int index) {
+        fail("field " + (index + 1) + " is not a valid number: \"" + line.substring(starts[index], ends[index]) + "\"");
+    }
+
+    /**
+     * Records a problem with the current line, unless one was already recorded.
+     * @param message the description of the problem
+     */
+    void fail(String message) {
+        if (error == null)
+            error = message;
+    }
+
+    private void addField(int start, int end) {
+        if (count == starts.length) {
+            starts = java.util.Arrays.copyOf(starts, count * 2);
+            ends = java.util.Arrays.copyOf(ends, count * 2);
+        }
+        starts[count] = start;
+        ends[count] = end;
+        count++;
+    }
+
+    /**
+     * Matches the characters of the regular expression class <code>\s</code>.
+     */
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+}
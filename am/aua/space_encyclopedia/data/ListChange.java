@@ -0,0 +1,49 @@
+package am.aua.space_encyclopedia.data;
+
+import java.util.ArrayList;
+import am.aua.space_encyclopedia.core.CelestialBody;
+
+/**
+ * The <code>ListChange</code> class holds the new sorted list of one type of body, made by inserting bodies into the
+ * list of the previous version, together with the rows at which the inserted bodies stand in the new list.
+ * <p>
+ * The rows are known for free while the list is built, so passing them on spares everyone who follows the catalog
+ * from comparing the two lists to find them.
+ * <p>
+ * An object of type <code>ListChange</code> contains:
+ * <ul>
+ *   <li><code>list</code> - The new sorted list, which must not be changed</li>
+ *   <li><code>rows</code> - The rows of the inserted bodies in the new list, in ascending order</li>
+ * </ul>
+ * @param <T> the type of celestial body
+ */
+final class ListChange<T extends CelestialBody> {
+    private final ArrayList<T> list;
+    private final int[] rows;
+
+    /**
+     * Constructs a change.
+     * @param list the new sorted list, taken over unchanged
+     * @param rows the rows of the inserted bodies in the new list, in ascending order, taken over unchanged
+     */
+    ListChange(ArrayList<T> list, int[] rows) {
+        this.list = list;
+        this.rows = rows;
+    }
+
+    /**
+     * Gets the new sorted list.
+     * @return the list
+     */
+    ArrayList<T> getList() {
+        return list;
+    }
+
+    /**
+     * Gets the rows of the inserted bodies in the new list.
+     * @return the rows, in ascending order
+     */
+    int[] getRows() {
+        return rows;
+    }
+}
@@ -0,0 +1,128 @@
+package am.aua.space_encyclopedia.data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import am.aua.space_encyclopedia.core.*;
+
+/**
+ * The <code>NameIndex</code> class maps normalized names to celestial bodies of every type,
+ * so that a body can be found by name in constant time.
+ * <p>
+ * A name may be used by more than one type (for example a star and a galaxy with the same name).
+ * Such names are recorded as collisions: <code>get</code> still returns a single body, preferring
+ * stars, then planets, then galaxies, while <code>getAll</code> returns every body with that name.
+ * <p>
+ * One index serves every version of a catalog. Each body is added with its number, the count of bodies added
+ * before it, and every lookup takes the number of bodies its version holds and ignores the bodies added later.
+ * Bodies are added by one thread at a time while any number of threads look them up: the entries of a name
+ * are never changed, only replaced by a new chain.
+ * <p>
+ * An object of type <code>NameIndex</code> contains:
+ * <ul>
+ *   <li><code>bodies</code> - A <code>ConcurrentHashMap</code> from name key to the chain of bodies with that name,
+ *       in order of preference</li>
+ *   <li><code>collisions</code> - The name keys used by more than one type in the newest version</li>
+ * </ul>
+ */
+class NameIndex {
+    private final ConcurrentHashMap<String, Entry> bodies = new ConcurrentHashMap<>();
+    private final Set<String> collisions = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Adds a body to the index. The caller makes sure no body of the same type and name is indexed yet.
+     * @param body the body to add
+     * @param number the number of bodies added before it
+     */
+    void add(CelestialBody body, int number) {
+        String key = body.getNameKey();
+        Entry first = bodies.get(key);
+        bodies.put(key, insert(first, body, number));
+        if (first != null)
+            collisions.add(key);
+    }
+
+    /**
+     * Returns the body with the given name key, preferring stars, then planets, then galaxies.
+     * @param key the normalized name key
+     * @param count the number of bodies in the version searched
+     * @return the body, or null if no body of that version has that name
+     */
+    CelestialBody get(String key, int count) {
+        for (Entry entry = bodies.get(key); entry != null; entry = entry.next)
+            if (entry.number < count)
+                return entry.body;
+        return null;
+    }
+
+    /**
+     * Returns every body with the given name key, in order of preference.
+     * @param key the normalized name key
+     * @param count the number of bodies in the version searched
+     * @return list of bodies, empty if no body of that version has that name
+     */
+    List<CelestialBody> getAll(String key, int count) {
+        Entry first = bodies.get(key);
+        if (first != null && first.next == null && first.number < count)
+            return Collections.singletonList(first.body);
+
+        ArrayList<CelestialBody> all = new ArrayList<>(2);
+        for (Entry entry = first; entry != null; entry = entry.next)
+            if (entry.number < count)
+                all.add(entry.body);
+        return all;
+    }
+
+    /**
+     * Returns the name keys that are used by more than one type of body.
+     * @param count the number of bodies in the version searched
+     * @return list of colliding name keys
+     */
+    List<String> getCollisions(int count) {
+        ArrayList<String> keys = new ArrayList<>();
+        for (String key : collisions) {
+            int visible = 0;
+            for (Entry entry = bodies.get(key); entry != null; entry = entry.next)
+                if (entry.number < count)
+                    visible++;
+            if (visible > 1)
+                keys.add(key);
+        }
+        return keys;
+    }
+
+    /**
+     * Returns a copy of the chain with the body inserted in order of preference.
+     */
+    private static Entry insert(Entry first, CelestialBody body, int number) {
+        if (first == null || precedence(body) < precedence(first.body))
+            return new Entry(body, number, first);
+        return new Entry(first.body, first.number, insert(first.next, body, number));
+    }
+
+    private static int precedence(CelestialBody body) {
+        if (body instanceof Star)
+            return 0;
+        else if (body instanceof Planet)
+            return 1;
+        else
+            return 2;
+    }
+
+    /**
+     * One body in the chain of a name, with the number it was added under.
+     */
+    private static class Entry {
+        private final CelestialBody body;
+        private final int number;
+        private final Entry next;
+
+        Entry(CelestialBody body, int number, Entry next) {
+            this.body = body;
+            this.number = number;
+            this.next = next;
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package am.aua.space_encyclopedia.data;
+
+import java.math.BigInteger;
+
+/**
+ * The <code>NumberParser</code> class reads numbers straight out of a range of characters, so a field of a line
+ * does not have to be copied into its own <code>String</code> first, and reports a malformed number by returning
+ * false instead of throwing.
+ * <p>
+ * Plain decimals such as <code>-12.5</code> or <code>1.989e30</code> with up to 19 significant digits are converted
+ * without any allocation: exactly with a single multiplication or division when both the digits and the power of
+ * ten fit in a <code>double</code> (Clinger's fast path), and otherwise with the Eisel-Lemire algorithm, which
+ * multiplies the digits by a 128-bit approximation of the power of ten and rounds correctly whenever the
+ * approximation is close enough to decide. Every other text, including the rare cases that algorithm cannot
+ * decide, goes to <code>Double.parseDouble</code>, <code>Long.parseLong</code> or <code>Integer.parseInt</code>,
+ * so the accepted forms and the results are always exactly theirs.
+ * <p>
+ * An object of type <code>NumberParser</code> holds the value of the last successful parse. It is reused from
+ * field to field and is not thread-safe.
+ */
+final class NumberParser {
+    private static final int MAX_DIGITS = 19;
+    private static final int SMALLEST_POWER = -342;
+    private static final int LARGEST_POWER = 308;
+    private static final int MANTISSA_BITS = 52;
+    private static final int MINIMUM_EXPONENT = -1023;
+    private static final int INFINITE_POWER = 0x7FF;
+
+    /** The powers of ten that are exact as a <code>double</code>. */
+    private static final double[] EXACT_POWERS = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    /**
+     * The 128-bit approximations of 5^q for q from <code>SMALLEST_POWER</code> to <code>LARGEST_POWER</code>,
+     * shifted so that the highest bit is set, stored as pairs of (high, low) 64-bit words.
+     */
+    private static final long[] POWERS_OF_FIVE = computePowersOfFive();
+
+    private double doubleValue;
+    private long longValue;
+
+    /**
+     * Parses a number in the syntax of <code>Double.parseDouble</code>.
+     * @param text the text holding the number
+     * @param start the index of the first character
+     * @param end the index after the last character
+     * @return true if the characters form a number, which is then returned by <code>getDouble</code>
+     */
+    boolean parseDouble(CharSequence text, int start, int end) {
+        if (parsePlainDecimal(text, start, end))
+            return true;
+        // whitespace, Infinity, NaN, hexadecimal, type suffixes, long or malformed numbers
+        try {
+            doubleValue = Double.parseDouble(text.subSequence(start, end).toString());
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Parses a whole number in the syntax of <code>Long.parseLong</code>.
+     * @param text the text holding the number
+     * @param start the index of the first character
+     * @param end the index after the last character
+     * @return true if the characters form a <code>long</code>, which is then returned by <code>getLong</code>
+     */
+    boolean parseLong(CharSequence text, int start, int end) {
+        if (parsePlainInteger(text, start, end))
+            return true;
+        // non-ASCII digits, 19 digits or more, or malformed numbers
+        try {
+            longValue = Long.parseLong(text.subSequence(start, end).toString());
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Parses a whole number in the syntax of <code>Integer.parseInt</code>.
+     * @param text the text holding the number
+     * @param start the index of the first character
+     * @param end the index after the last character
+     * @return true if the characters form an <code>int</code>, which is then returned by <code>getLong</code>
+     */
+    boolean parseInt(CharSequence text, int start, int end) {
+        return parseLong(text, start, end) && longValue >= Integer.MIN_VALUE && longValue <= Integer.MAX_VALUE;
+    }
+
+    /**
+     * Returns the value of the last successful <code>parseDouble</code>.
+     * @return the parsed value
+     */
+    double getDouble() {
+        return doubleValue;
+    }
+
+    /**
+     * Returns the value of the last successful <code>parseLong</code> or <code>parseInt</code>.
+     * @return the parsed value
+     */
+    long getLong() {
+        return longValue;
+    }
+
+    /**
+     * Parses <code>[+-]digits[.digits][(e|E)[+-]digits]</code> with at most 19 significant digits.
+     */
+    private boolean parsePlainDecimal(CharSequence text, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (text.charAt(i) == '+' || text.charAt(i) == '-'))
+            negative = text.charAt(i++) == '-';
+
+        long digits = 0;
+        int count = 0;
+        int exponent = 0;
+        boolean anyDigit = false;
+        char c;
+        while (i < end && (c = text.charAt(i)) >= '0' && c <= '9') {
+            anyDigit = true;
+            if (count < MAX_DIGITS) {
+                digits = digits * 10 + (c - '0');
+                if (digits != 0)
+                    count++;
+            } else {
+                if (c != '0')
+                    return false;  // more digits than a long holds
+                exponent++;
+            }
+            i++;
+        }
+        if (i < end && text.charAt(i) == '.') {
+            i++;
+            while (i < end && (c = text.charAt(i)) >= '0' && c <= '9') {
+                anyDigit = true;
+                if (count < MAX_DIGITS) {
+                    digits = digits * 10 + (c - '0');
+                    if (digits != 0)
+                        count++;
+                    exponent--;
+                } else if (c != '0') {
+                    return false;
+                }
+                i++;
+            }
+        }
+        if (!anyDigit)
+            return false;
+
+        if (i < end && (text.charAt(i) == 'e' || text.charAt(i) == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (text.charAt(i) == '+' || text.charAt(i) == '-'))
+                negativeExponent = text.charAt(i++) == '-';
+            int written = 0;
+            int firstExponentDigit = i;
+            while (i < end && (c = text.charAt(i)) >= '0' && c <= '9') {
+                written = written * 10 + (c - '0');
+                if (written >= 100_000)
+                    return false;  // let Double.parseDouble clamp huge exponents
+                i++;
+            }
+            if (i == firstExponentDigit)
+                return false;
+            exponent += negativeExponent ? -written : written;
+        }
+        if (i != end)
+            return false;
+
+        // 19 digits may not fit in a long; from here on digits is unsigned
+        if (digits == 0) {
+            doubleValue = negative ? -0.0 : 0.0;
+            return true;
+        }
+        if (digits > 0 && digits <= (1L << 53) && exponent >= -22 && exponent <= 22) {
+            double value = digits;
+            value = exponent < 0 ? value / EXACT_POWERS[-exponent] : value * EXACT_POWERS[exponent];
+            doubleValue = negative ? -value : value;
+            return true;
+        }
+        return eiselLemire(negative, digits, exponent);
+    }
+
+    /**
+     * Converts <code>digits * 10^exponent</code> to the nearest <code>double</code>.
+     * @return false if the 128-bit approximation is too close to a rounding boundary to decide
+     */
+    private boolean eiselLemire(boolean negative, long digits, int exponent) {
+        long sign = negative ? Long.MIN_VALUE : 0L;
+        if (exponent < SMALLEST_POWER) {
+            doubleValue = Double.longBitsToDouble(sign);
+            return true;
+        }
+        if (exponent > LARGEST_POWER) {
+            doubleValue = Double.longBitsToDouble(sign | ((long) INFINITE_POWER << MANTISSA_BITS));
+            return true;
+        }
+
+        int leadingZeros = Long.numberOfLeadingZeros(digits);
+        long w = digits << leadingZeros;
+        int index = 2 * (exponent - SMALLEST_POWER);
+        long high = multiplyHighUnsigned(w, POWERS_OF_FIVE[index]);
+        long low = w * POWERS_OF_FIVE[index];
+
+        long precisionMask = -1L >>> (MANTISSA_BITS + 3);
+        if ((high & precisionMask) == precisionMask) {
+            // the truncated product may be off by one in the bits that decide rounding; add the next 64 bits
+            long secondHigh = multiplyHighUnsigned(w, POWERS_OF_FIVE[index + 1]);
+            long sum = low + secondHigh;
+            if (Long.compareUnsigned(sum, low) < 0)
+                high++;
+            low = sum;
+            if (low == -1L && (exponent < -27 || exponent > 55))
+                return false;
+        }
+
+        int upperBit = (int) (high >>> 63);
+        long mantissa = high >>> (upperBit + 64 - MANTISSA_BITS - 3);
+        int power2 = (((152170 + 65536) * exponent) >> 16) + 63 + upperBit - leadingZeros - MINIMUM_EXPONENT;
+
+        if (power2 <= 0) {
+            // subnormal
+            if (-power2 + 1 >= 64) {
+                doubleValue = Double.longBitsToDouble(sign);
+                return true;
+            }
+            mantissa >>>= -power2 + 1;
+            mantissa += mantissa & 1;
+            mantissa >>>= 1;
+            power2 = mantissa < (1L << MANTISSA_BITS) ? 0 : 1;
+            doubleValue = Double.longBitsToDouble(sign | ((long) power2 << MANTISSA_BITS)
+                    | (mantissa & ((1L << MANTISSA_BITS) - 1)));
+            return true;
+        }
+
+        // exactly halfway between two doubles: round to even instead of up
+        if (Long.compareUnsigned(low, 1) <= 0 && exponent >= -4 && exponent <= 23 && (mantissa & 3) == 1
+                && (mantissa << (upperBit + 64 - MANTISSA_BITS - 3)) == high)
+            mantissa &= ~1L;
+
+        mantissa += mantissa & 1;
+        mantissa >>>= 1;
+        if (mantissa >= (2L << MANTISSA_BITS)) {
+            mantissa = 1L << MANTISSA_BITS;
+            power2++;
+        }
+        mantissa &= ~(1L << MANTISSA_BITS);
+        if (power2 >= INFINITE_POWER) {
+            power2 = INFINITE_POWER;
+            mantissa = 0;
+        }
+        doubleValue = Double.longBitsToDouble(sign | ((long) power2 << MANTISSA_BITS) | mantissa);
+        return true;
+    }
+
+    /**
+     * Parses <code>[+-]digits</code> with at most 18 ASCII digits, which always fits in a <code>long</code>.
+     */
+    private boolean parsePlainInteger(CharSequence text, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (text.charAt(i) == '+' || text.charAt(i) == '-'))
+            negative = text.charAt(i++) == '-';
+        if (i == end || end - i > 18)
+            return false;
+
+        long value = 0;
+        for (; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9')
+                return false;
+            value = value * 10 + (c - '0');
+        }
+        longValue = negative ? -value : value;
+        return true;
+    }
+
+    private static long multiplyHighUnsigned(long a, long b) {
+        return Math.multiplyHigh(a, b) + ((a >> 63) & b) + ((b >> 63) & a);
+    }
+
+    /**
+     * Builds the table of powers of five: truncated for positive powers, and rounded up before truncation
+     * for negative powers, as the Eisel-Lemire algorithm requires.
+     */
+    private static long[] computePowersOfFive() {
+        long[] table = new long[2 * (LARGEST_POWER - SMALLEST_POWER + 1)];
+        BigInteger five = BigInteger.valueOf(5);
+        BigInteger twoTo128 = BigInteger.ONE.shiftLeft(128);
+        for (int q = SMALLEST_POWER; q <= LARGEST_POWER; q++) {
+            BigInteger value;
+            if (q < 0) {
+                BigInteger power = five.pow(-q);
+                int z = power.bitLength();
+                if (power.bitCount() == 1)
+                    z--;  // the smallest z with 2^z >= 5^-q
+                int b = q >= -27 ? z + 127 : 2 * z + 128;
+                value = BigInteger.ONE.shiftLeft(b).divide(power).add(BigInteger.ONE);
+                while (value.compareTo(twoTo128) >= 0)
+                    value = value.shiftRight(1);
+            } else {
+                value = five.pow(q);
+                if (value.bitLength() < 128)
+                    value = value.shiftLeft(128 - value.bitLength());
+                else
+                    value = value.shiftRight(value.bitLength() - 128);
+            }
+            int index = 2 * (q - SMALLEST_POWER);
+            table[index] = value.shiftRight(64).longValue();
+            table[index + 1] = value.longValue();
+        }
+        return table;
+    }
+}
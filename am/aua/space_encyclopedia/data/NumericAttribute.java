@@ -0,0 +1,139 @@
+package am.aua.space_encyclopedia.data;
+
+import am.aua.space_encyclopedia.core.*;
+
+/**
+ * The <code>NumericAttribute</code> enum lists the numeric properties of celestial bodies that can be
+ * used in range searches, including the derived values that are computed once per body.
+ * Each attribute knows which type of body has it and how to read it as a <code>double</code>.
+ */
+public enum NumericAttribute {
+    /** Distance from Earth in light-years, for every type of body. */
+    DISTANCE(CelestialBody.class) {
+        @Override
+        public double valueOf(CelestialBody body) {
+            return body.getDistanceFromEarth();
+        }
+    },
+    /** Mass in kilograms, for every type of body. */
+    MASS(CelestialBody.class) {
+        @Override
+        public double valueOf(CelestialBody body) {
+            return body.getMass();
+        }
+    },
+    /** Temperature in Kelvin, for every type of body. */
+    TEMPERATURE(CelestialBody.class) {
+        @Override
+        public double valueOf(CelestialBody body) {
+            return body.getTemperature();
+        }
+    },
+    /** Luminosity relative to the Sun, for stars. */
+    LUMINOSITY(Star.class) {
+        @Override
+        public double valueOf(CelestialBody body) {
+            return ((Star) body).getLuminosity();
+        }
+    },
+    /** Size relative to the Sun, for stars. */
+    SIZE(Star.class) {
+        @Override
+        public double valueOf(CelestialBody body) {
+            return ((Star) body).getSize();
+        }
+    },
+    /** Absolute magnitude, derived from luminosity, for stars. */
+    ABSOLUTE_MAGNITUDE(Star.class) {
+        @Override
+        public double valueOf(CelestialBody body) {
+            return ((Star) body).calculateAbsoluteMagnitude();
+        }
+    },
+    /** Main sequence lifespan in billion years, derived from mass, for stars. */
+    LIFESPAN(Star.class) {
+        @Override
+        public double valueOf(CelestialBody body) {
+            return ((Star) body).estimateMainSequenceLifespan();
+        }
+    },
+    /** Number of moons, for planets. */
+    MOONS(Planet.class) {
+        @Override
+        public double valueOf(CelestialBody body) {
+            return ((Planet) body).getNumberOfMoons();
+        }
+    },
+    /** Radius in meters, for planets. */
+    RADIUS(Planet.class) {
+        @Override
+        public double valueOf(CelestialBody body) {
+            return ((Planet) body).getRadius();
+        }
+    },
+    /** Surface gravity in m/s^2, derived from mass and radius, for planets. */
+    SURFACE_GRAVITY(Planet.class) {
+        @Override
+        public double valueOf(CelestialBody body) {
+            return ((Planet) body).calculateSurfaceGravity();
+        }
+    },
+    /** Estimated number of stars, for galaxies. */
+    NUMBER_OF_STARS(Galaxy.class) {
+        @Override
+        public double valueOf(CelestialBody body) {
+            return ((Galaxy) body).getNumberOfStars();
+        }
+    },
+    /** Diameter in light-years, for galaxies. */
+    DIAMETER(Galaxy.class) {
+        @Override
+        public double valueOf(CelestialBody body) {
+            return ((Galaxy) body).getDiameter();
+        }
+    },
+    /** Age in billions of years, for galaxies. */
+    AGE(Galaxy.class) {
+        @Override
+        public double valueOf(CelestialBody body) {
+            return ((Galaxy) body).getAge();
+        }
+    },
+    /** Stars per cubic light-year, derived from number of stars and diameter, for galaxies. */
+    STAR_DENSITY(Galaxy.class) {
+        @Override
+        public double valueOf(CelestialBody body) {
+            return ((Galaxy) body).estimateStarDensity();
+        }
+    },
+    /** Escape velocity at the edge in m/s, derived from mass and diameter, for galaxies. */
+    ESCAPE_VELOCITY(Galaxy.class) {
+        @Override
+        public double valueOf(CelestialBody body) {
+            return ((Galaxy) body).calculateEscapeVelocity();
+        }
+    };
+
+    private final Class<? extends CelestialBody> owner;
+
+    NumericAttribute(Class<? extends CelestialBody> owner) {
+        this.owner = owner;
+    }
+
+    /**
+     * Reads this attribute from a body.
+     * @param body the body to read (must be of a type that has this attribute)
+     * @return the value of the attribute
+     * @throws ClassCastException if the body does not have this attribute
+     */
+    public abstract double valueOf(CelestialBody body);
+
+    /**
+     * Checks whether bodies of the given type have this attribute.
+     * @param type the class of the body
+     * @return true if the attribute can be read from bodies of that type
+     */
+    public boolean appliesTo(Class<? extends CelestialBody> type) {
+        return owner.isAssignableFrom(type);
+    }
+}
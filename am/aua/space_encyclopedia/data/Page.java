@@ -0,0 +1,59 @@
+package am.aua.space_encyclopedia.data;
+
+import java.util.Collections;
+import java.util.List;
+import am.aua.space_encyclopedia.core.CelestialBody;
+
+/**
+ * The <code>Page</code> class holds one page of celestial bodies read in name order, together with the cursor
+ * that continues after it.
+ * <p>
+ * The cursor is the normalized name key of the last body on the page. The next page starts at the first body whose
+ * key is greater, so paging is stable while bodies are added: nothing is skipped or repeated because of insertions
+ * in front of the cursor, and each page costs a binary search and a copy of the page, however deep it is.
+ * <p>
+ * An object of type <code>Page</code> contains:
+ * <ul>
+ *   <li><code>items</code> - The bodies on the page, in name order</li>
+ *   <li><code>nextCursor</code> - The cursor for the next page, or <code>null</code> if this is the last page</li>
+ * </ul>
+ * @param <T> the type of celestial body
+ */
+public final class Page<T extends CelestialBody> {
+    private final List<T> items;
+    private final String nextCursor;
+
+    /**
+     * Constructs a page.
+     * @param items the bodies on the page, taken over unchanged
+     * @param nextCursor the cursor for the next page, or null if there is none
+     */
+    Page(List<T> items, String nextCursor) {
+        this.items = Collections.unmodifiableList(items);
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Gets the bodies on this page, in name order.
+     * @return unmodifiable list of bodies, empty only if the catalog has nothing after the cursor
+     */
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Gets the cursor to pass when asking for the next page.
+     * @return the name key of the last body on this page, or <code>null</code> if this is the last page
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Checks whether more bodies follow this page.
+     * @return true if there is a next page
+     */
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,129 @@
+package am.aua.space_encyclopedia.data;
+
+import java.util.List;
+import am.aua.space_encyclopedia.core.CelestialBody;
+
+/**
+ * The <code>RangeIndex</code> class is a sorted index over one numeric attribute of a list of bodies.
+ * <p>
+ * The attribute values are kept in ascending order in a primitive <code>double[]</code>, next to a permutation
+ * array giving the position of each value's body in the indexed list. A range of values is then found with two
+ * binary searches, so a range query costs logarithmic time plus the size of its result.
+ * <p>
+ * The values are sorted with <code>Double.compare</code>, but the bounds are found with the primitive operators
+ * that <code>RangePredicate</code> and the query conditions use, so <code>-0.0</code> counts as equal to
+ * <code>0.0</code> there too. The two zeros sort next to each other, so the searches still see ordered values.
+ * <p>
+ * The index describes the list as it was when the index was built and must be rebuilt after the list changes.
+ * <p>
+ * An object of type <code>RangeIndex</code> contains:
+ * <ul>
+ *   <li><code>keys</code> - The attribute values in ascending order</li>
+ *   <li><code>rows</code> - The list position of the body behind each value</li>
+ * </ul>
+ */
+class RangeIndex {
+    private final double[] keys;
+    private final int[] rows;
+
+    private RangeIndex(double[] keys, int[] rows) {
+        this.keys = keys;
+        this.rows = rows;
+    }
+
+    /**
+     * Builds an index over one attribute of the given list.
+     * Bodies with equal values keep their list order.
+     * @param list the bodies to index
+     * @param attribute the attribute to sort by
+     * @return the new index
+     */
+    static RangeIndex build(List<? extends CelestialBody> list, NumericAttribute attribute) {
+        int size = list.size();
+        double[] values = new double[size];
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = attribute.valueOf(list.get(i));
+            order[i] = i;
+        }
+        order = sortByValue(order, values);
+
+        double[] keys = new double[size];
+        for (int i = 0; i < size; i++)
+            keys[i] = values[order[i]];
+        return new RangeIndex(keys, order);
+    }
+
+    /**
+     * Returns the index position of the first value not smaller than min.
+     * @param min the lower bound
+     * @return the start of the range (inclusive)
+     */
+    int lowerBound(double min) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keys[middle] < min)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        return low;
+    }
+
+    /**
+     * Returns the index position just after the last value not greater than max.
+     * @param max the upper bound
+     * @return the end of the range (exclusive)
+     */
+    int upperBound(double max) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keys[middle] <= max)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        return low;
+    }
+
+    /**
+     * Returns the list position of the body at the given index position.
+     * @param position a position between 0 and the number of indexed bodies
+     * @return the position of that body in the indexed list
+     */
+    int rowAt(int position) {
+        return rows[position];
+    }
+
+    /**
+     * Sorts the row numbers by their values with a stable bottom-up merge sort on primitive arrays.
+     * @return the sorted row numbers (either the given array or a new one)
+     */
+    private static int[] sortByValue(int[] order, double[] values) {
+        int size = order.length;
+        int[] buffer = new int[size];
+        for (int width = 1; width < size; width *= 2) {
+            for (int start = 0; start < size; start += 2 * width) {
+                int middle = Math.min(start + width, size);
+                int end = Math.min(start + 2 * width, size);
+                int i = start;
+                int j = middle;
+                int k = start;
+                while (i < middle && j < end)
+                    buffer[k++] = Double.compare(values[order[j]], values[order[i]]) < 0 ? order[j++] : order[i++];
+                while (i < middle)
+                    buffer[k++] = order[i++];
+                while (j < end)
+                    buffer[k++] = order[j++];
+            }
+            int[] swap = order;
+            order = buffer;
+            buffer = swap;
+        }
+        return order;
+    }
+}
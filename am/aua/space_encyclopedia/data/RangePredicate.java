@@ -0,0 +1,100 @@
+package am.aua.space_encyclopedia.data;
+
+import am.aua.space_encyclopedia.core.CelestialBody;
+
+/**
+ * The <code>RangePredicate</code> class describes an inclusive range of values of one numeric attribute,
+ * such as "temperature from 6000 K up". Use infinite bounds for ranges open on one side.
+ * <p>
+ * An object of type <code>RangePredicate</code> contains:
+ * <ul>
+ *   <li><code>attribute</code> - The <code>NumericAttribute</code> being tested</li>
+ *   <li><code>min</code> - The smallest accepted value</li>
+ *   <li><code>max</code> - The largest accepted value</li>
+ * </ul>
+ */
+public class RangePredicate {
+    private final NumericAttribute attribute;
+    private final double min;
+    private final double max;
+
+    /**
+     * Constructs a range of accepted values for an attribute.
+     * @param attribute the attribute to test
+     * @param min the smallest accepted value (may be <code>Double.NEGATIVE_INFINITY</code>)
+     * @param max the largest accepted value (may be <code>Double.POSITIVE_INFINITY</code>)
+     * @throws IllegalArgumentException if attribute is null or a bound is NaN
+     */
+    public RangePredicate(NumericAttribute attribute, double min, double max) {
+        if (attribute == null)
+            throw new IllegalArgumentException("Attribute cannot be null.");
+        if (Double.isNaN(min) || Double.isNaN(max))
+            throw new IllegalArgumentException("Range bounds cannot be NaN.");
+        this.attribute = attribute;
+        this.min = min;
+        this.max = max;
+    }
+
+    /**
+     * Creates a range with only a lower bound.
+     * @param attribute the attribute to test
+     * @param min the smallest accepted value
+     * @return the range predicate
+     */
+    public static RangePredicate atLeast(NumericAttribute attribute, double min) {
+        return new RangePredicate(attribute, min, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Creates a range with only an upper bound.
+     * @param attribute the attribute to test
+     * @param max the largest accepted value
+     * @return the range predicate
+     */
+    public static RangePredicate atMost(NumericAttribute attribute, double max) {
+        return new RangePredicate(attribute, Double.NEGATIVE_INFINITY, max);
+    }
+
+    /**
+     * Gets the attribute tested by this range.
+     * @return the attribute
+     */
+    public NumericAttribute getAttribute() {
+        return attribute;
+    }
+
+    /**
+     * Gets the smallest accepted value.
+     * @return the lower bound
+     */
+    public double getMin() {
+        return min;
+    }
+
+    /**
+     * Gets the largest accepted value.
+     * @return the upper bound
+     */
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * Checks whether the value of the attribute of a body lies in this range.
+     * @param body the body to test
+     * @return true if the value is between min and max (inclusive)
+     */
+    public boolean matches(CelestialBody body) {
+        double value = attribute.valueOf(body);
+        return value >= min && value <= max;
+    }
+
+    /**
+     * Returns a readable form of this range, for example <code>TEMPERATURE in [6000.0, Infinity]</code>.
+     * @return string representation of this range
+     */
+    @Override
+    public String toString() {
+        return attribute + " in [" + min + ", " + max + "]";
+    }
+}
@@ -0,0 +1,222 @@
+package am.aua.space_encyclopedia.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import am.aua.space_encyclopedia.core.*;
+
+/**
+ * The <code>SubstringIndex</code> class answers "name contains" queries without scanning every name.
+ * <p>
+ * Each indexed body gets a number, the count of bodies added before it, and for every trigram (three consecutive
+ * characters) of its normalized name the index keeps a sorted posting list of the numbers of the bodies containing
+ * it. A query is answered by intersecting the posting lists of the trigrams of the search term, shortest list
+ * first, and checking the few remaining candidates.
+ * <p>
+ * Terms shorter than a trigram, and terms so common that reading their shortest posting list would cost more than
+ * finding the first matches of each type, are instead checked against the names of the sorted lists of the version
+ * searched, stopping at the limit of each type. A very common term such as a single letter so costs no more than
+ * the rows shown.
+ * <p>
+ * One index serves every version of a catalog. A query takes the number of bodies its version holds and ignores
+ * the numbers from there on. Bodies are added by one thread at a time while any number of threads search: arrays
+ * are only written past the numbers any published version can see, and replaced by a larger copy when full.
+ * <p>
+ * An object of type <code>SubstringIndex</code> contains:
+ * <ul>
+ *   <li><code>bodies</code> - An array of the indexed bodies, where the position is the body number</li>
+ *   <li><code>postings</code> - A <code>ConcurrentHashMap</code> from trigram to the numbers of the bodies
+ *       containing it</li>
+ * </ul>
+ */
+class SubstringIndex {
+    private static final int GRAM_LENGTH = 3;
+    private static final int TYPE_COUNT = 3;
+
+    /** Orders results like the catalog lists them: stars, then planets, then galaxies, each sorted by name. */
+    private static final Comparator<CelestialBody> RESULT_ORDER =
+            Comparator.comparingInt(SubstringIndex::typeRank).thenComparing(CelestialBody::getNameKey);
+
+    private volatile CelestialBody[] bodies = new CelestialBody[16];
+    private int size;
+    private final ConcurrentHashMap<Long, Postings> postings = new ConcurrentHashMap<>();
+
+    /**
+     * Adds a body to the index under the next number.
+     * @param body the body to add
+     */
+    void add(CelestialBody body) {
+        int id = size;
+        CelestialBody[] current = bodies;
+        if (id == current.length) {
+            current = Arrays.copyOf(current, id * 2);
+            current[id] = body;
+            bodies = current;
+        } else {
+            current[id] = body;
+        }
+        size++;
+
+        String key = body.getNameKey();
+        for (int i = 0; i + GRAM_LENGTH <= key.length(); i++)
+            postings.computeIfAbsent(gram(key, i), g -> new Postings()).add(id);
+    }
+
+    /**
+     * Finds the bodies whose names contain the given text (case-insensitive), at most a given number of each type.
+     * The matches kept are the first ones in the order of the catalog.
+     * @param term the text to look for
+     * @param limit the maximum number of stars, of planets and of galaxies to return
+     * @param lists the sorted lists of stars, planets and galaxies of the version searched
+     * @return list of matching bodies: stars, then planets, then galaxies, each sorted by name
+     */
+    List<CelestialBody> find(String term, int limit, List<? extends List<? extends CelestialBody>> lists) {
+        String key = CelestialBody.normalizeName(term);
+        int count = 0;
+        for (List<? extends CelestialBody> list : lists)
+            count += list.size();
+
+        if (key.length() >= GRAM_LENGTH) {
+            int[][] ids = new int[key.length() - GRAM_LENGTH + 1][];
+            int[] sizes = new int[ids.length];
+            int shortest = 0;
+            for (int i = 0; i < ids.length; i++) {
+                Postings list = postings.get(gram(key, i));
+                if (list == null)
+                    return new ArrayList<>();
+                ids[i] = list.ids;
+                sizes[i] = seek(ids[i], count, 0);
+                if (sizes[i] < sizes[shortest])
+                    shortest = i;
+            }
+            // scanning reads about limit * count / matches names, the intersection the shortest posting list
+            if (limit == Integer.MAX_VALUE || (long) sizes[shortest] * sizes[shortest] <= (long) limit * count)
+                return intersect(ids, sizes, shortest, key, limit, count);
+        }
+        return scan(lists, key, limit);
+    }
+
+    /**
+     * Checks the names of the sorted lists one by one, stopping at the limit of each type.
+     */
+    private static List<CelestialBody> scan(List<? extends List<? extends CelestialBody>> lists, String key,
+                                            int limit) {
+        ArrayList<CelestialBody> matches = new ArrayList<>();
+        for (List<? extends CelestialBody> list : lists) {
+            int found = 0;
+            for (int i = 0; i < list.size() && found < limit; i++) {
+                CelestialBody body = list.get(i);
+                if (body.getNameKey().contains(key)) {
+                    matches.add(body);
+                    found++;
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Intersects the posting lists, shortest first, over the numbers below count and keeps the first matches
+     * of each type in the order of the catalog.
+     */
+    private List<CelestialBody> intersect(int[][] ids, int[] sizes, int shortest, String key, int limit, int count) {
+        CelestialBody[] indexed = bodies;
+        ArrayList<CelestialBody> matches = new ArrayList<>();
+        int[] cursors = new int[ids.length];
+        candidates:
+        for (int c = 0; c < sizes[shortest]; c++) {
+            int id = ids[shortest][c];
+            for (int j = 0; j < ids.length; j++) {
+                if (j == shortest)
+                    continue;
+                cursors[j] = seek(ids[j], id, cursors[j]);
+                if (cursors[j] == sizes[j])
+                    break candidates;
+                if (ids[j][cursors[j]] != id)
+                    continue candidates;
+            }
+            // every trigram occurs in the name, but not necessarily in the right order
+            CelestialBody body = indexed[id];
+            if (body.getNameKey().contains(key))
+                matches.add(body);
+        }
+
+        matches.sort(RESULT_ORDER);
+        if (limit == Integer.MAX_VALUE)
+            return matches;
+        int[] found = new int[TYPE_COUNT];
+        ArrayList<CelestialBody> kept = new ArrayList<>();
+        for (CelestialBody body : matches)
+            if (found[typeRank(body)]++ < limit)
+                kept.add(body);
+        return kept;
+    }
+
+    /**
+     * Returns the position of the first number not smaller than id in a posting array, starting the search at from.
+     * Gallops forward and then binary-searches, so long runs of skipped numbers cost only logarithmic time.
+     */
+    private static int seek(int[] ids, int id, int from) {
+        int step = 1;
+        int low = from;
+        int high = from;
+        while (high < ids.length && ids[high] < id) {
+            low = high + 1;
+            high += step;
+            step <<= 1;
+        }
+        high = Math.min(high, ids.length);
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (ids[middle] < id)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        return low;
+    }
+
+    private static long gram(String key, int start) {
+        return ((long) key.charAt(start) << 32) | ((long) key.charAt(start + 1) << 16) | key.charAt(start + 2);
+    }
+
+    private static int typeRank(CelestialBody body) {
+        if (body instanceof Star)
+            return 0;
+        else if (body instanceof Planet)
+            return 1;
+        else
+            return 2;
+    }
+
+    /**
+     * A growable, ascending list of body numbers. The unused end of the array holds <code>Integer.MAX_VALUE</code>,
+     * so a reader never needs the size: it stops at the first number its version cannot see.
+     */
+    private static class Postings {
+        private volatile int[] ids = empty(4);
+        private int size;
+
+        void add(int id) {
+            int[] current = ids;
+            if (size > 0 && current[size - 1] == id)
+                return;  // the trigram occurs more than once in the same name
+            if (size == current.length) {
+                int[] grown = empty(size * 2);
+                System.arraycopy(current, 0, grown, 0, size);
+                grown[size++] = id;
+                ids = grown;
+            } else {
+                current[size++] = id;
+            }
+        }
+
+        private static int[] empty(int length) {
+            int[] ids = new int[length];
+            Arrays.fill(ids, Integer.MAX_VALUE);
+            return ids;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package am.aua.space_encyclopedia.data;
+
+import am.aua.space_encyclopedia.core.*;
+
+/**
+ * The <code>TextAttribute</code> enum lists the descriptive text properties and classifications of celestial
+ * bodies that take a small set of values. Each attribute knows which type of body has it and how to read its
+ * <code>AttributeDictionary</code> code, so equality filters and grouping compare integers instead of strings.
+ */
+public enum TextAttribute {
+    /** The type or classification, for every type of body. */
+    TYPE(CelestialBody.class) {
+        @Override
+        public int codeOf(CelestialBody body) {
+            return body.getTypeCode();
+        }
+    },
+    /** The visual color, for stars. */
+    COLOR(Star.class) {
+        @Override
+        public int codeOf(CelestialBody body) {
+            return ((Star) body).getColorCode();
+        }
+    },
+    /** The spectral type and luminosity class from <code>Star.classifyStar()</code>, for stars. */
+    SPECTRAL_CLASS(Star.class) {
+        @Override
+        public int codeOf(CelestialBody body) {
+            return ((Star) body).getSpectralClassCode();
+        }
+    },
+    /** The atmospheric composition, for planets. */
+    ATMOSPHERE(Planet.class) {
+        @Override
+        public int codeOf(CelestialBody body) {
+            return ((Planet) body).getAtmosphereCode();
+        }
+    },
+    /** The surface conditions, for planets. */
+    SURFACE(Planet.class) {
+        @Override
+        public int codeOf(CelestialBody body) {
+            return ((Planet) body).getSurfaceCode();
+        }
+    };
+
+    private final Class<? extends CelestialBody> owner;
+
+    TextAttribute(Class<? extends CelestialBody> owner) {
+        this.owner = owner;
+    }
+
+    /**
+     * Reads the dictionary code of this attribute from a body.
+     * @param body the body to read (must be of a type that has this attribute)
+     * @return the code of the value of the attribute
+     * @throws ClassCastException if the body does not have this attribute
+     */
+    public abstract int codeOf(CelestialBody body);
+
+    /**
+     * Reads this attribute from a body as text.
+     * @param body the body to read (must be of a type that has this attribute)
+     * @return the value of the attribute
+     * @throws ClassCastException if the body does not have this attribute
+     */
+    public String valueOf(CelestialBody body) {
+        return AttributeDictionary.decode(codeOf(body));
+    }
+
+    /**
+     * Checks whether bodies of the given type have this attribute.
+     * @param type the class of the body
+     * @return true if the attribute can be read from bodies of that type
+     */
+    public boolean appliesTo(Class<? extends CelestialBody> type) {
+        return owner.isAssignableFrom(type);
+    }
+}
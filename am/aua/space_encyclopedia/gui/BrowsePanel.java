@@ -6,7 +6,6 @@ import javax.swing.*;
 import javax.swing.border.*;
 import java.awt.*;
 import java.awt.event.*;
-import java.util.ArrayList;
 /**
  * <code>BrowsePanel</code> is a custom <code>JPanel</code> for browsing celestial bodies.
  * Displays categorized lists of <code>Star</code>s, <code>Planet</code>s, and <code>Galaxy</code>s
@@ -31,6 +30,8 @@ public class BrowsePanel extends JPanel {
     private static final Font TITLE_FONT = new Font("Segoe UI", Font.BOLD, 20);
     private static final Font CATEGORY_TITLE_FONT = new Font("Segoe UI", Font.BOLD, 16);
     private static final Font LIST_FONT = new Font("Segoe UI", Font.PLAIN, 14);
+    private static final String PROTOTYPE_NAME = "Large Magellanic Cloud";
+    private static final int LIST_CELL_HEIGHT = 22;
 
     private DataManager dataManager;
     private ActionListener showMenuListener;
@@ -78,7 +79,7 @@ public class BrowsePanel extends JPanel {
         return backButton;
     }
     /**
-     * Styles the back button with color, font, and hover effects.
+     * Styles a button with color, font, and hover effects.
      * @param button the button to style
      */
     private void styleButton(JButton button) {
@@ -110,32 +111,27 @@ public class BrowsePanel extends JPanel {
         contentPanel.setBackground(BACKGROUND_COLOR);
         contentPanel.setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
 
-        contentPanel.add(createCategoryPanel("STARS", dataManager.getStars()));
-        contentPanel.add(createCategoryPanel("PLANETS", dataManager.getPlanets()));
-        contentPanel.add(createCategoryPanel("GALAXIES", dataManager.getGalaxies()));
+        contentPanel.add(createCategoryPanel("STARS", Star.class));
+        contentPanel.add(createCategoryPanel("PLANETS", Planet.class));
+        contentPanel.add(createCategoryPanel("GALAXIES", Galaxy.class));
 
         return contentPanel;
     }
     /**
      * Creates a category panel for displaying a list of celestial bodies (e.g., Stars, Planets, Galaxies).
+     * The list reads the names straight from the catalog, only for the rows on screen, and shows bodies
+     * added later as they arrive.
      * @param title the title of the category panel
-     * @param objects the list of celestial bodies to display in the category
+     * @param type the class of the bodies of the category
      * @param <T> the type of celestial body (extends {@link CelestialBody})
      * @return the category panel with the list of celestial bodies
      */
-    private <T extends CelestialBody> JPanel createCategoryPanel(String title, ArrayList<T> objects) {
+    private <T extends CelestialBody> JPanel createCategoryPanel(String title, Class<T> type) {
         JPanel panel = new JPanel(new BorderLayout());
         panel.setBorder(createCategoryBorder(title));
         panel.setBackground(Color.WHITE);
 
-        // Convert ArrayList to String array
-        String[] names = new String[objects.size()];
-        for (int i = 0; i < objects.size(); i++) {
-            names[i] = objects.get(i).getName();
-        }
-
-        // Create the JList with the names array
-        JList<String> objectList = new JList<>(names);
+        JList<String> objectList = new JList<>(new CatalogListModel<>(dataManager, type));
         styleObjectList(objectList);
 
         panel.add(new JScrollPane(objectList), BorderLayout.CENTER);
@@ -151,6 +147,9 @@ public class BrowsePanel extends JPanel {
         list.setBackground(LIST_BACKGROUND_COLOR);
         list.setForeground(LIST_FOREGROUND_COLOR);
         list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        // a prototype and a fixed height let the list size itself without measuring every row
+        list.setPrototypeCellValue(PROTOTYPE_NAME);
+        list.setFixedCellHeight(LIST_CELL_HEIGHT);
     }
 /**
      * Creates the border for each category panel, including a titled border with the category name.
@@ -0,0 +1,129 @@
+package am.aua.space_encyclopedia.gui;
+
+import am.aua.space_encyclopedia.core.CelestialBody;
+import am.aua.space_encyclopedia.data.CatalogListener;
+import am.aua.space_encyclopedia.data.CatalogSnapshot;
+import am.aua.space_encyclopedia.data.DataManager;
+import javax.swing.*;
+import java.util.List;
+/**
+ * <code>CatalogListModel</code> is a <code>ListModel</code> of the names of one type of celestial body,
+ * read straight from the sorted list of the current catalog snapshot.
+ * <p>
+ * Nothing is copied: a name is only fetched when the list asks for that row, so a <code>JList</code> with a
+ * fixed cell height only ever touches the rows on screen. When bodies are added, the new version of the catalog
+ * tells the model at which rows they were inserted; on the event dispatch thread the model then switches to the new
+ * list and fires one <code>intervalAdded</code> per run of new rows, which keeps the selection and the scroll
+ * position.
+ * <p>
+ * Contains:
+ * <ul>
+ *   <li><code>DataManager</code> - The catalog the names come from</li>
+ *   <li><code>Class</code> - The type of body listed</li>
+ *   <li><code>List</code> - The bodies currently shown, only used on the event dispatch thread</li>
+ * </ul>
+ * @param <T> the type of celestial body listed
+ */
+public class CatalogListModel<T extends CelestialBody> extends AbstractListModel<String> implements CatalogListener {
+    private static final long serialVersionUID = 1L;
+
+    /** Beyond this many separate runs of new rows, one change is reported as a refresh of the whole list. */
+    private static final int MAX_INSERTED_RUNS = 64;
+
+    private final DataManager dataManager;
+    private final Class<T> type;
+    private List<T> bodies;
+
+    /**
+     * Constructs a model that follows one type of body in the catalog. Create it on the event dispatch thread.
+     * @param dataManager the catalog to list
+     * @param type the type of body to show, e.g. <code>Star.class</code>
+     */
+    public CatalogListModel(DataManager dataManager, Class<T> type) {
+        this.dataManager = dataManager;
+        this.type = type;
+        dataManager.addCatalogListener(this);
+        this.bodies = dataManager.getSnapshot().getBodies(type);
+    }
+
+    /**
+     * Returns the number of bodies shown.
+     * @return the number of rows
+     */
+    @Override
+    public int getSize() {
+        return bodies.size();
+    }
+
+    /**
+     * Returns the name of the body in a row.
+     * @param index the row
+     * @return the name of the body
+     */
+    @Override
+    public String getElementAt(int index) {
+        return bodies.get(index).getName();
+    }
+
+    /**
+     * Returns the body in a row.
+     * @param index the row
+     * @return the body
+     */
+    public T getBodyAt(int index) {
+        return bodies.get(index);
+    }
+
+    /**
+     * Stops following the catalog. The model keeps showing the bodies it has.
+     */
+    public void dispose() {
+        dataManager.removeCatalogListener(this);
+    }
+
+    /**
+     * Takes the rows the new version inserted into this type of body and passes them to the event dispatch thread.
+     * Only the inserted rows are copied, so this costs no more than the change itself.
+     * @param previous the version before the change
+     * @param current the version after the change
+     */
+    @Override
+    public void catalogChanged(CatalogSnapshot previous, CatalogSnapshot current) {
+        List<T> before = previous.getBodies(type);
+        List<T> after = current.getBodies(type);
+        if (before == after)
+            return;  // this type did not change and the snapshots share its list
+        int[] rows = current.getInsertedRows(type);
+        SwingUtilities.invokeLater(() -> update(before, after, rows));
+    }
+
+    /**
+     * Switches to the new list and reports the inserted rows, one interval per run of adjacent rows, or the whole
+     * list if the model missed a change or the runs are too many to report one by one.
+     */
+    private void update(List<T> before, List<T> after, int[] rows) {
+        int runs = 0;
+        for (int i = 0; i < rows.length; i++)
+            if (i == 0 || rows[i] != rows[i - 1] + 1)
+                runs++;
+
+        if (bodies != before || runs > MAX_INSERTED_RUNS) {
+            int oldSize = bodies.size();
+            bodies = after;
+            if (oldSize > 0)
+                fireIntervalRemoved(this, 0, oldSize - 1);
+            if (!after.isEmpty())
+                fireIntervalAdded(this, 0, after.size() - 1);
+            return;
+        }
+        bodies = after;
+        // in ascending order, each run's indices in the new list are also its indices once the earlier runs are in
+        for (int start = 0; start < rows.length; ) {
+            int end = start;
+            while (end + 1 < rows.length && rows[end + 1] == rows[end] + 1)
+                end++;
+            fireIntervalAdded(this, rows[start], rows[end]);
+            start = end + 1;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package am.aua.space_encyclopedia.gui;
 
 import am.aua.space_encyclopedia.core.CelestialBody;
+import am.aua.space_encyclopedia.data.DetailsCache;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
@@ -13,6 +14,7 @@ import java.awt.event.*;
  * <ul>
  *   <li>A field of type <code>ActionListener</code> to handle the back navigation action.</li>
  *   <li>A field of type <code>JTextArea</code> to display the details of the celestial body.</li>
+ *   <li>A field of type <code>DetailsCache</code> holding the rendered text of recently shown bodies.</li>
  * </ul>
  */
 
@@ -34,12 +36,15 @@ public class DetailsPanel extends JPanel {
 
     private ActionListener backToSearchListener;
     private JTextArea detailsArea;
+    private DetailsCache detailsCache;
     /**
      * Constructs a {@code DetailsPanel} with the specified back navigation action.
      * @param backToSearchListener the listener triggered when the back button is clicked
+     * @param detailsCache the cache to take the rendered details from
      */
-    public DetailsPanel(ActionListener backToSearchListener) {
+    public DetailsPanel(ActionListener backToSearchListener, DetailsCache detailsCache) {
         this.backToSearchListener = backToSearchListener;
+        this.detailsCache = detailsCache;
         setLayout(new BorderLayout());
         setBackground(BACKGROUND_COLOR);
 
@@ -180,9 +185,9 @@ public class DetailsPanel extends JPanel {
         StringBuilder details = new StringBuilder();
         details.append(body.getClass().getSimpleName().toUpperCase())
                 .append("\n\n")
-                .append(body)
+                .append(detailsCache.getSummary(body))
                 .append("\n\n")
-                .append(body.showFacts());
+                .append(detailsCache.getFacts(body));
 
         detailsArea.setText(details.toString());
         detailsArea.setCaretPosition(0);
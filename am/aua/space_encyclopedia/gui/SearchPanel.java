@@ -1,26 +1,42 @@
 package am.aua.space_encyclopedia.gui;
 
 import am.aua.space_encyclopedia.core.*;
+import am.aua.space_encyclopedia.data.CatalogSnapshot;
 import am.aua.space_encyclopedia.data.DataManager;
 
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import java.awt.*;
 import java.awt.event.*;
 import java.util.*;
+import java.util.List;
+import javax.swing.Timer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * The <code>SearchPanel</code> class represents the search panel UI of the Space Encyclopedia application.
  * It allows users to search for celestial bodies by name and view results.
  * It contains a text field for search input, a list to display results, and buttons for navigating 
  * to the main menu or viewing details of a selected object.
+ * <p>
+ * The search runs as the user types: every change to the text restarts a short timer, and when the typing pauses
+ * the query goes to a background thread, so the event thread only ever swaps in finished results. A new query
+ * cancels the one before it, and results of a query that has been overtaken are dropped. The results of a query
+ * are put into the list with two events, one clearing it and one adding them all.
  * An object of type <code>SearchPanel</code> contains:
  * <ul>
  *   <li>A field of type <code>DataManager</code> to manage celestial objects.</li>
  *   <li>A field of type <code>ActionListener</code> for navigating back to the main menu.</li>
  *   <li>A field of type <code>ActionListener</code> for viewing details of selected objects.</li>
  *   <li>A field of type <code>JTextField</code> to input the search term.</li>
+ *   <li>A field of type <code>JCheckBox</code> to match the term anywhere in the name instead of only at the start.</li>
  *   <li>A field of type <code>JList&lt;String&gt;</code> to display the search results.</li>
  *   <li>A field of type <code>DefaultListModel&lt;String&gt;</code> to manage the list model of results.</li>
+ *   <li>A field of type <code>Timer</code> that starts a search once the typing pauses.</li>
+ *   <li>A field of type <code>ExecutorService</code> running the searches, and the <code>Future</code> of the last one.</li>
  * </ul>
  */
 
@@ -33,6 +49,21 @@ public class SearchPanel extends JPanel {
     private static final Color LIST_BACKGROUND_COLOR = new Color(245, 245, 245);
     private static final Color HEADER_COLOR = new Color(91, 139, 216);
 
+    /** The maximum number of results shown for each category. */
+    private static final int RESULT_LIMIT = 500;
+    /** The maximum number of "did you mean" suggestions shown when nothing matches. */
+    private static final int SUGGESTION_LIMIT = 5;
+    /** How long the typing must pause, in milliseconds, before a search starts. */
+    private static final int SEARCH_DELAY = 200;
+    /** The widest result usually shown, used to size the rows of the results list without measuring them. */
+    private static final String PROTOTYPE_RESULT = "[Galaxy] Large Magellanic Cloud";
+    /** Runs the searches of every search panel, one at a time, off the event dispatch thread. */
+    private static final ExecutorService SEARCH_EXECUTOR = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "search");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     // Font constants
     private static final Font FONT = new Font("Segoe UI", Font.PLAIN, 14);
     private static final Font TITLE_FONT = new Font("Segoe UI", Font.BOLD, 20);
@@ -41,8 +72,12 @@ public class SearchPanel extends JPanel {
     private ActionListener showMenuListener;
     private ActionListener viewDetailsListener;
     private JTextField searchField;
+    private JCheckBox containsBox;
     private JList<String> resultsList;
     private DefaultListModel<String> listModel;
+    private Timer searchTimer;
+    private Future<?> pendingSearch;
+    private volatile int searchNumber;
    /**
      * Constructs a SearchPanel with the given data manager and action listeners.
      * @param dataManager         the data source for celestial objects
@@ -111,6 +146,26 @@ public class SearchPanel extends JPanel {
         searchField = new JTextField();
         styleTextField(searchField);
 
+        // Search as the user types, once the typing pauses
+        searchTimer = new Timer(SEARCH_DELAY, e -> startSearch(false));
+        searchTimer.setRepeats(false);
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                searchTimer.restart();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                searchTimer.restart();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                searchTimer.restart();
+            }
+        });
+
         JButton searchBtn = new JButton("Search");
         styleButton(searchBtn);
         searchBtn.addActionListener(e -> performSearch());
@@ -132,6 +187,12 @@ public class SearchPanel extends JPanel {
         searchControls.add(searchField, BorderLayout.CENTER);
         searchControls.add(searchBtn, BorderLayout.SOUTH);
 
+        containsBox = new JCheckBox("Match anywhere in name");
+        containsBox.setFont(FONT);
+        containsBox.setOpaque(false);
+        containsBox.addItemListener(e -> searchTimer.restart());
+        searchControls.add(containsBox, BorderLayout.EAST);
+
         // Results panel
         listModel = new DefaultListModel<>();
         resultsList = new JList<>(listModel);
@@ -196,55 +257,139 @@ public class SearchPanel extends JPanel {
         resultsList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         resultsList.setBackground(LIST_BACKGROUND_COLOR);
         resultsList.setForeground(Color.DARK_GRAY);
+        resultsList.setPrototypeCellValue(PROTOTYPE_RESULT);
     }
 /**
      * Performs a search using the entered text and displays results.
+     * The search runs in the background; the results replace the list when it finishes.
      */
     public void performSearch() {
+        searchTimer.stop();
+        startSearch(true);
+    }
+/**
+     * Runs the current search again, for example after more of the catalog has been loaded.
+     * Does nothing while the search field is empty. A search already waiting to start is not put off, so
+     * calling this for every part of a catalog that streams in runs the search at most once per delay.
+     */
+    public void refreshSearch() {
+        if (!searchField.getText().trim().isEmpty() && !searchTimer.isRunning()) {
+            searchTimer.start();
+        }
+    }
+/**
+     * Cancels the search in progress, if any, and starts one for the current text.
+     * @param warnIfEmpty whether to tell the user to enter a term when the field is empty
+     */
+    private void startSearch(boolean warnIfEmpty) {
         String term = searchField.getText().trim();
-        listModel.clear();
+        boolean contains = containsBox.isSelected();
+        int number = ++searchNumber;
+        if (pendingSearch != null) {
+            pendingSearch.cancel(true);
+        }
 
         if (term.isEmpty()) {
-            JOptionPane.showMessageDialog(this,
-                    "Please enter a search term",
-                    "Search Error",
-                    JOptionPane.WARNING_MESSAGE);
+            pendingSearch = null;
+            listModel.clear();
+            if (warnIfEmpty) {
+                JOptionPane.showMessageDialog(this,
+                        "Please enter a search term",
+                        "Search Error",
+                        JOptionPane.WARNING_MESSAGE);
+            }
             return;
         }
 
-        searchCategory(term, dataManager.getStars(), "Star");
-        searchCategory(term, dataManager.getPlanets(), "Planet");
-        searchCategory(term, dataManager.getGalaxies(), "Galaxy");
+        pendingSearch = SEARCH_EXECUTOR.submit(() -> {
+            List<String> results = findResults(term, contains, number);
+            if (results != null) {
+                SwingUtilities.invokeLater(() -> showResults(number, results));
+            }
+        });
+    }
+/**
+     * Runs a search on the search thread and formats the lines to show.
+     * @param term     the search term
+     * @param contains whether the term may appear anywhere in the name
+     * @param number   the number of this search
+     * @return the lines to show, or null if the search was cancelled or replaced by a newer one
+     */
+    private List<String> findResults(String term, boolean contains, int number) {
+        CatalogSnapshot snapshot = dataManager.getSnapshot();
+        ArrayList<String> results = new ArrayList<>();
+        if (contains) {
+            addMatches(results, snapshot.findCelestialBodiesContaining(term, RESULT_LIMIT));
+        } else {
+            addCategory(results, snapshot.findStarsByPrefix(term, RESULT_LIMIT), "Star");
+            addCategory(results, snapshot.findPlanetsByPrefix(term, RESULT_LIMIT), "Planet");
+            addCategory(results, snapshot.findGalaxiesByPrefix(term, RESULT_LIMIT), "Galaxy");
+        }
+        // the fuzzy search below cannot be interrupted, so skip it if the user has typed on
+        if (isStale(number)) {
+            return null;
+        }
 
-        if (listModel.isEmpty()) {
-            listModel.addElement("No results found for " + term);
+        if (results.isEmpty()) {
+            results.add("No results found for " + term);
+            List<CelestialBody> similar = snapshot.findSimilarCelestialBodies(term, SUGGESTION_LIMIT);
+            if (!similar.isEmpty()) {
+                results.add("Did you mean:");
+                for (CelestialBody obj : similar) {
+                    results.add("[" + obj.getClass().getSimpleName() + "] " + obj.getName());
+                }
+            }
+        }
+        return isStale(number) ? null : results;
+    }
+/**
+     * Tells whether a search was cancelled or a newer one has started, so its results are no longer wanted.
+     * @param number the number of the search
+     * @return true if the search should stop
+     */
+    private boolean isStale(int number) {
+        return Thread.currentThread().isInterrupted() || number != searchNumber;
+    }
+/**
+     * Replaces the results in the list in one batch, unless a newer search has started since.
+     * The selected line stays selected if it is among the new results.
+     * @param number  the number of the search that produced the results
+     * @param results the lines to show
+     */
+    private void showResults(int number, List<String> results) {
+        if (number != searchNumber) {
+            return;
+        }
+        pendingSearch = null;
+        String selected = resultsList.getSelectedValue();
+        listModel.clear();
+        listModel.addAll(results);
+        if (selected != null) {
+            resultsList.setSelectedValue(selected, false);
         }
     }
     
  /**
-     * Searches a specific category of celestial objects and adds matches to the list.
-     * @param term      the search term
-     * @param objects   the list of celestial bodies
+     * Adds the matches of one category to the results. The matches already come sorted from the prefix index.
+     * @param results   the lines to show
+     * @param matches   the matching celestial bodies, in sorted order
      * @param typeName  the category name (e.g., "Star", "Planet", etc.)
      * @param <T>       a subclass of CelestialBody
      */
-    private <T extends CelestialBody> void searchCategory(String term, ArrayList<T> objects, String typeName) {
-        String lowerTerm = term.toLowerCase();
-        ArrayList<T> matchingObjects = new ArrayList<>();
-
-        // Collect objects that start with the search term
-        for (T obj : objects) {
-            if (obj.getName().toLowerCase().startsWith(lowerTerm)) {
-                matchingObjects.add(obj);
-            }
+    private static <T extends CelestialBody> void addCategory(List<String> results, List<T> matches, String typeName) {
+        for (T obj : matches) {
+            results.add("[" + typeName + "] " + obj.getName());
         }
-
-        // Sort the matching objects using their compareTo method
-        Collections.sort(matchingObjects);
-
-        // Add sorted names to the listModel
-        for (T obj : matchingObjects) {
-            listModel.addElement("[" + typeName + "] " + obj.getName());
+    }
+/**
+     * Adds the matches of a "contains" search to the results. The index already stops at <code>RESULT_LIMIT</code>
+     * per category.
+     * @param results the lines to show
+     * @param matches the matching celestial bodies: stars, then planets, then galaxies, each sorted by name
+     */
+    private static void addMatches(List<String> results, List<CelestialBody> matches) {
+        for (CelestialBody obj : matches) {
+            results.add("[" + obj.getClass().getSimpleName() + "] " + obj.getName());
         }
     }
 /**
@@ -267,4 +412,23 @@ public class SearchPanel extends JPanel {
         }
         return null;
     }
+/**
+     * Returns the type of the currently selected celestial body, taken from the category label of the result.
+     * @return the class of the selected object, or null if nothing is selected
+     */
+    public Class<? extends CelestialBody> getSelectedObjectType() {
+        if (resultsList == null || resultsList.getSelectedValue() == null) {
+            return null;
+        }
+        String selected = resultsList.getSelectedValue();
+
+        if (selected.startsWith("[Star]")) {
+            return Star.class;
+        } else if (selected.startsWith("[Planet]")) {
+            return Planet.class;
+        } else if (selected.startsWith("[Galaxy]")) {
+            return Galaxy.class;
+        }
+        return null;
+    }
 }
@@ -0,0 +1,165 @@
+package am.aua.space_encyclopedia.query;
+
+import java.util.DoubleSummaryStatistics;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * The <code>Aggregation</code> class groups a list of celestial bodies by a key and aggregates every group
+ * using all available cores, for example the mean temperature per spectral class or the total number of stars
+ * per galaxy type.
+ * <p>
+ * The list is split in halves on the fork-join pool until the pieces are small enough. Each piece is aggregated
+ * into its own map of accumulators, so the threads never share or lock anything, and the maps of two halves are
+ * merged when both are done. The pieces are a fixed function of the list size, so results do not depend on
+ * thread timing.
+ */
+public final class Aggregation {
+    /** The number of bodies below which a list is aggregated by a single thread. */
+    public static final int SEQUENTIAL_THRESHOLD = 8192;
+
+    private Aggregation() {
+    }
+
+    /**
+     * Counts the bodies in every group.
+     * @param bodies the bodies to group (a random-access list)
+     * @param key computes the group of a body
+     * @param <T> the type of the bodies
+     * @param <K> the type of the group keys
+     * @return map from group to number of bodies
+     */
+    public static <T, K> Map<K, Long> count(List<? extends T> bodies, Function<? super T, ? extends K> key) {
+        Map<K, long[]> counts = aggregate(bodies, key, () -> new long[1], (count, body) -> count[0]++,
+                                          (count, other) -> count[0] += other[0]);
+        HashMap<K, Long> result = new HashMap<>();
+        for (Map.Entry<K, long[]> entry : counts.entrySet())
+            result.put(entry.getKey(), entry.getValue()[0]);
+        return result;
+    }
+
+    /**
+     * Computes the count, sum, minimum, maximum and mean of a numeric value in every group.
+     * @param bodies the bodies to group (a random-access list)
+     * @param key computes the group of a body
+     * @param value reads the value to aggregate
+     * @param <T> the type of the bodies
+     * @param <K> the type of the group keys
+     * @return map from group to statistics of the value
+     */
+    public static <T, K> Map<K, DoubleSummaryStatistics> summarize(List<? extends T> bodies,
+                                                                Function<? super T, ? extends K> key,
+                                                                ToDoubleFunction<? super T> value) {
+        return aggregate(bodies, key, DoubleSummaryStatistics::new,
+                         (statistics, body) -> statistics.accept(value.applyAsDouble(body)),
+                         DoubleSummaryStatistics::combine);
+    }
+
+    /**
+     * Adds up a whole-number value in every group without overflow.
+     * @param bodies the bodies to group (a random-access list)
+     * @param key computes the group of a body
+     * @param value reads the value to add
+     * @param <T> the type of the bodies
+     * @param <K> the type of the group keys
+     * @return map from group to exact sum of the value
+     */
+    public static <T, K> Map<K, ExactSum> sumExact(List<? extends T> bodies, Function<? super T, ? extends K> key,
+                                                 ToLongFunction<? super T> value) {
+        return aggregate(bodies, key, ExactSum::new, (sum, body) -> sum.add(value.applyAsLong(body)),
+                         ExactSum::merge);
+    }
+
+    /**
+     * Groups the bodies and folds every group into an accumulator, in parallel.
+     * @param bodies the bodies to group (a random-access list)
+     * @param key computes the group of a body (must not return null)
+     * @param newAccumulator creates an empty accumulator
+     * @param accumulate adds a body to an accumulator
+     * @param merge adds the second accumulator into the first
+     * @param <T> the type of the bodies
+     * @param <K> the type of the group keys
+     * @param <A> the type of the accumulators
+     * @return map from group to accumulator
+     * @throws IllegalArgumentException if an argument is null
+     */
+    public static <T, K, A> Map<K, A> aggregate(List<? extends T> bodies, Function<? super T, ? extends K> key,
+                                                Supplier<A> newAccumulator, BiConsumer<A, ? super T> accumulate,
+                                                BiConsumer<A, A> merge) {
+        if (bodies == null || key == null || newAccumulator == null || accumulate == null || merge == null)
+            throw new IllegalArgumentException("Arguments cannot be null");
+        GroupTask<T, K, A> task = new GroupTask<T, K, A>(bodies, key, newAccumulator, accumulate, merge, 0, bodies.size());
+        if (bodies.size() < SEQUENTIAL_THRESHOLD)
+            return task.compute();
+        return ForkJoinPool.commonPool().invoke(task);
+    }
+
+    /**
+     * Aggregates a range of the list, splitting it in halves while it is large.
+     */
+    private static class GroupTask<T, K, A> extends RecursiveTask<Map<K, A>> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<? extends T> bodies;
+        private final Function<? super T, ? extends K> key;
+        private final Supplier<A> newAccumulator;
+        private final BiConsumer<A, ? super T> accumulate;
+        private final BiConsumer<A, A> merge;
+        private final int from;
+        private final int to;
+
+        GroupTask(List<? extends T> bodies, Function<? super T, ? extends K> key, Supplier<A> newAccumulator,
+                  BiConsumer<A, ? super T> accumulate, BiConsumer<A, A> merge, int from, int to) {
+            this.bodies = bodies;
+            this.key = key;
+            this.newAccumulator = newAccumulator;
+            this.accumulate = accumulate;
+            this.merge = merge;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Map<K, A> compute() {
+            if (to - from >= SEQUENTIAL_THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                GroupTask<T, K, A> left = new GroupTask<T, K, A>(bodies, key, newAccumulator, accumulate, merge,
+                                                                 from, middle);
+                GroupTask<T, K, A> right = new GroupTask<T, K, A>(bodies, key, newAccumulator, accumulate, merge,
+                                                                  middle, to);
+                right.fork();
+                return mergeMaps(left.compute(), right.join());
+            }
+
+            HashMap<K, A> groups = new HashMap<>();
+            for (int i = from; i < to; i++) {
+                T body = bodies.get(i);
+                A accumulator = groups.computeIfAbsent(key.apply(body), k -> newAccumulator.get());
+                accumulate.accept(accumulator, body);
+            }
+            return groups;
+        }
+
+        /**
+         * Merges the right map into the left one, always merging a right accumulator into the left one.
+         */
+        private Map<K, A> mergeMaps(Map<K, A> left, Map<K, A> right) {
+            for (Map.Entry<K, A> entry : right.entrySet()) {
+                A accumulator = left.get(entry.getKey());
+                if (accumulator == null)
+                    left.put(entry.getKey(), entry.getValue());
+                else
+                    merge.accept(accumulator, entry.getValue());
+            }
+            return left;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package am.aua.space_encyclopedia.query;
+
+import java.util.function.Predicate;
+import am.aua.space_encyclopedia.core.*;
+import am.aua.space_encyclopedia.data.*;
+
+/**
+ * The <code>Condition</code> class is one comparison of a <code>where</code> clause, such as
+ * <code>temperature &gt; 6000</code> or <code>type = 'Spiral'</code>.
+ * <p>
+ * A condition is compiled once into a small lambda specialized for its field and operator, so testing a body
+ * is a direct getter call and a primitive comparison instead of a walk over the parsed query.
+ * Text values are compared by their <code>AttributeDictionary</code> codes and names by their normalized keys.
+ * <p>
+ * An object of type <code>Condition</code> contains:
+ * <ul>
+ *   <li><code>field</code> - The <code>Field</code> being compared</li>
+ *   <li><code>operator</code> - The comparison <code>Operator</code></li>
+ *   <li><code>number</code> - The value compared with a numeric field</li>
+ *   <li><code>text</code> - The value compared with a text field or the name</li>
+ * </ul>
+ */
+final class Condition {
+    /**
+     * The comparison operators of the query language.
+     */
+    enum Operator {
+        LESS("<"), LESS_OR_EQUAL("<="), GREATER(">"), GREATER_OR_EQUAL(">="), EQUAL("="), NOT_EQUAL("!=");
+
+        private final String symbol;
+
+        Operator(String symbol) {
+            this.symbol = symbol;
+        }
+
+        /**
+         * Finds the operator written with the given symbol; <code>&lt;&gt;</code> is accepted for <code>!=</code>.
+         * @param symbol the symbol
+         * @return the operator, or null if the symbol is not an operator
+         */
+        static Operator of(String symbol) {
+            if (symbol.equals("<>"))
+                return NOT_EQUAL;
+            for (Operator operator : values())
+                if (operator.symbol.equals(symbol))
+                    return operator;
+            return null;
+        }
+
+        @Override
+        public String toString() {
+            return symbol;
+        }
+    }
+
+    private final Field field;
+    private final Operator operator;
+    private final double number;
+    private final String text;
+
+    /**
+     * Constructs a comparison of a numeric field with a number.
+     * @throws IllegalArgumentException if the field is not numeric or the number is NaN
+     */
+    Condition(Field field, Operator operator, double number) {
+        if (!field.isNumeric())
+            throw new IllegalArgumentException("Field " + field + " cannot be compared with a number");
+        if (Double.isNaN(number))
+            throw new IllegalArgumentException("Cannot compare " + field + " with NaN");
+        this.field = field;
+        this.operator = operator;
+        this.number = number;
+        this.text = null;
+    }
+
+    /**
+     * Constructs a comparison of a text field or the name with a text value.
+     * @throws IllegalArgumentException if the field is numeric or the operator is not = or !=
+     */
+    Condition(Field field, Operator operator, String text) {
+        if (field.isNumeric())
+            throw new IllegalArgumentException("Field " + field + " must be compared with a number");
+        if (operator != Operator.EQUAL && operator != Operator.NOT_EQUAL)
+            throw new IllegalArgumentException("Field " + field + " can only be compared with = or !=");
+        this.field = field;
+        this.operator = operator;
+        this.number = Double.NaN;
+        this.text = text;
+    }
+
+    Field getField() {
+        return field;
+    }
+
+    Operator getOperator() {
+        return operator;
+    }
+
+    String getText() {
+        return text;
+    }
+
+    /**
+     * Checks whether this condition looks up a body by its name.
+     * @return true for <code>name = ...</code>
+     */
+    boolean isNameLookup() {
+        return field == Field.NAME && operator == Operator.EQUAL;
+    }
+
+    /**
+     * Converts a numeric comparison into an inclusive range that a range index can answer.
+     * Strict bounds are moved to the next representable <code>double</code>.
+     * @return the range, or null if the condition is not a range
+     */
+    RangePredicate toRange() {
+        if (!field.isNumeric())
+            return null;
+        NumericAttribute attribute = field.getNumeric();
+        boolean strict = operator == Operator.LESS || operator == Operator.GREATER;
+        if (strict && Double.isInfinite(number))
+            return null;  // no next double to move the bound to
+        switch (operator) {
+            case LESS:
+                return RangePredicate.atMost(attribute, Math.nextDown(number));
+            case LESS_OR_EQUAL:
+                return RangePredicate.atMost(attribute, number);
+            case GREATER:
+                return RangePredicate.atLeast(attribute, Math.nextUp(number));
+            case GREATER_OR_EQUAL:
+                return RangePredicate.atLeast(attribute, number);
+            case EQUAL:
+                return new RangePredicate(attribute, number, number);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Compiles this condition into a predicate.
+     * @return a predicate that is true for the bodies satisfying this condition
+     */
+    Predicate<CelestialBody> compile() {
+        if (field.isNumeric()) {
+            NumericAttribute attribute = field.getNumeric();
+            double value = number;
+            switch (operator) {
+                case LESS:
+                    return body -> attribute.valueOf(body) < value;
+                case LESS_OR_EQUAL:
+                    return body -> attribute.valueOf(body) <= value;
+                case GREATER:
+                    return body -> attribute.valueOf(body) > value;
+                case GREATER_OR_EQUAL:
+                    return body -> attribute.valueOf(body) >= value;
+                case EQUAL:
+                    return body -> attribute.valueOf(body) == value;
+                default:
+                    return body -> attribute.valueOf(body) != value;
+            }
+        }
+        if (field.isText()) {
+            TextAttribute attribute = field.getText();
+            // a value that is not in the dictionary has no code, so it equals no body
+            int code = AttributeDictionary.codeOf(text);
+            if (operator == Operator.EQUAL)
+                return body -> attribute.codeOf(body) == code;
+            return body -> attribute.codeOf(body) != code;
+        }
+        String key = CelestialBody.normalizeName(text.trim());
+        if (operator == Operator.EQUAL)
+            return body -> body.getNameKey().equals(key);
+        return body -> !body.getNameKey().equals(key);
+    }
+
+    @Override
+    public String toString() {
+        if (field.isNumeric())
+            return field + " " + operator + " " + number;
+        return field + " " + operator + " '" + text + "'";
+    }
+}
@@ -0,0 +1,114 @@
+package am.aua.space_encyclopedia.query;
+
+import java.math.BigInteger;
+
+/**
+ * The <code>ExactSum</code> class adds up <code>long</code> values without ever losing precision.
+ * <p>
+ * Values are added to a <code>long</code> with the overflow test of <code>Math.addExact</code>; only when it overflows
+ * is the running total moved into a <code>BigInteger</code>, so the common case stays primitive arithmetic.
+ * <p>
+ * An object of type <code>ExactSum</code> contains:
+ * <ul>
+ *   <li><code>count</code> - The number of values added</li>
+ *   <li><code>sum</code> - The part of the total kept as a <code>long</code></li>
+ *   <li><code>spilled</code> - The part of the total moved out of <code>sum</code> on overflow</li>
+ *   <li><code>min</code> - The smallest value added</li>
+ *   <li><code>max</code> - The largest value added</li>
+ * </ul>
+ */
+public class ExactSum {
+    private long count;
+    private long sum;
+    private BigInteger spilled = BigInteger.ZERO;
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+
+    /**
+     * Adds a value.
+     * @param value the value to add
+     */
+    public void add(long value) {
+        count++;
+        addToSum(value);
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Adds all values of another sum to this one.
+     * @param other the sum to merge into this one
+     */
+    public void merge(ExactSum other) {
+        count += other.count;
+        addToSum(other.sum);
+        if (other.spilled.signum() != 0)
+            spilled = spilled.add(other.spilled);
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    private void addToSum(long value) {
+        long result = sum + value;
+        // overflow only when both operands have the sign opposite to the result, as in Math.addExact
+        if (((sum ^ result) & (value ^ result)) < 0) {
+            spilled = spilled.add(BigInteger.valueOf(sum));
+            result = value;
+        }
+        sum = result;
+    }
+
+    /**
+     * Gets the number of values added.
+     * @return the count
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the exact total.
+     * @return the sum of all values
+     */
+    public BigInteger getSum() {
+        return spilled.add(BigInteger.valueOf(sum));
+    }
+
+    /**
+     * Gets the total as a <code>long</code>.
+     * @return the sum of all values
+     * @throws ArithmeticException if the total does not fit in a long
+     */
+    public long getLongSum() {
+        return getSum().longValueExact();
+    }
+
+    /**
+     * Gets the mean of the values.
+     * @return the average, or 0 if no value was added
+     */
+    public double getAverage() {
+        return count == 0 ? 0 : getSum().doubleValue() / count;
+    }
+
+    /**
+     * Gets the smallest value added.
+     * @return the minimum, or <code>Long.MAX_VALUE</code> if no value was added
+     */
+    public long getMin() {
+        return min;
+    }
+
+    /**
+     * Gets the largest value added.
+     * @return the maximum, or <code>Long.MIN_VALUE</code> if no value was added
+     */
+    public long getMax() {
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return "count=" + count + ", sum=" + getSum() + ", min=" + min + ", max=" + max;
+    }
+}
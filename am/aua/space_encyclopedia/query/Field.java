@@ -0,0 +1,132 @@
+package am.aua.space_encyclopedia.query;
+
+import java.util.Comparator;
+import java.util.Locale;
+import am.aua.space_encyclopedia.core.*;
+import am.aua.space_encyclopedia.data.*;
+
+/**
+ * The <code>Field</code> class is a property of a celestial body that a query can filter, sort or show:
+ * the name, a <code>NumericAttribute</code> or a <code>TextAttribute</code>.
+ * In the query language a field is written as the lower-case name of its attribute, such as
+ * <code>temperature</code>, <code>number_of_stars</code> or <code>color</code>.
+ * <p>
+ * An object of type <code>Field</code> contains:
+ * <ul>
+ *   <li><code>name</code> - The name of the field in the query language</li>
+ *   <li><code>numeric</code> - The numeric attribute read by the field, or null</li>
+ *   <li><code>text</code> - The text attribute read by the field, or null</li>
+ * </ul>
+ */
+final class Field {
+    /** The name of a celestial body. */
+    static final Field NAME = new Field("name", null, null);
+
+    private final String name;
+    private final NumericAttribute numeric;
+    private final TextAttribute text;
+
+    private Field(String name, NumericAttribute numeric, TextAttribute text) {
+        this.name = name;
+        this.numeric = numeric;
+        this.text = text;
+    }
+
+    /**
+     * Finds the field with the given name (case-insensitive).
+     * @param name the name of the field
+     * @return the field
+     * @throws IllegalArgumentException if there is no field with that name
+     */
+    static Field of(String name) {
+        String upper = name.toUpperCase(Locale.ROOT);
+        if (upper.equals("NAME"))
+            return NAME;
+        for (NumericAttribute attribute : NumericAttribute.values())
+            if (attribute.name().equals(upper))
+                return new Field(upper.toLowerCase(Locale.ROOT), attribute, null);
+        for (TextAttribute attribute : TextAttribute.values())
+            if (attribute.name().equals(upper))
+                return new Field(upper.toLowerCase(Locale.ROOT), null, attribute);
+        throw new IllegalArgumentException("Unknown field: " + name);
+    }
+
+    String getName() {
+        return name;
+    }
+
+    NumericAttribute getNumeric() {
+        return numeric;
+    }
+
+    TextAttribute getText() {
+        return text;
+    }
+
+    boolean isNumeric() {
+        return numeric != null;
+    }
+
+    boolean isText() {
+        return text != null;
+    }
+
+    /**
+     * Checks whether bodies of the given type have this field.
+     * @param type the class of the body
+     * @return true if the field can be read from bodies of that type
+     */
+    boolean appliesTo(Class<? extends CelestialBody> type) {
+        if (numeric != null)
+            return numeric.appliesTo(type);
+        if (text != null)
+            return text.appliesTo(type);
+        return true;
+    }
+
+    /**
+     * Orders bodies by this field: numbers ascending, text and names alphabetically.
+     * @return the comparator
+     */
+    Comparator<CelestialBody> comparator() {
+        if (numeric != null) {
+            NumericAttribute attribute = numeric;
+            return (a, b) -> Double.compare(attribute.valueOf(a), attribute.valueOf(b));
+        }
+        if (text != null) {
+            TextAttribute attribute = text;
+            return (a, b) -> attribute.valueOf(a).compareTo(attribute.valueOf(b));
+        }
+        return Comparator.comparing(CelestialBody::getNameKey);
+    }
+
+    /**
+     * Reads this field from a body as text. Counts are shown without a fraction.
+     * @param body the body to read
+     * @return the value of the field
+     */
+    String format(CelestialBody body) {
+        if (numeric == NumericAttribute.MOONS || numeric == NumericAttribute.NUMBER_OF_STARS)
+            return Long.toString((long) numeric.valueOf(body));
+        if (numeric != null)
+            return Double.toString(numeric.valueOf(body));
+        if (text != null)
+            return text.valueOf(body);
+        return body.getName();
+    }
+
+    @Override
+    public boolean equals(Object otherObject) {
+        return otherObject instanceof Field && name.equals(((Field) otherObject).name);
+    }
+
+    @Override
+    public int hashCode() {
+        return name.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,68 @@
+package am.aua.space_encyclopedia.query;
+
+import am.aua.space_encyclopedia.core.*;
+
+/**
+ * The <code>GroupKey</code> enum lists the classifications that celestial bodies can be grouped by.
+ * Each key knows which type of body has it and how to compute it.
+ */
+public enum GroupKey {
+    /** The type or classification, for every type of body. */
+    TYPE(CelestialBody.class) {
+        @Override
+        public String keyOf(CelestialBody body) {
+            return body.getType();
+        }
+    },
+    /** The spectral type and luminosity class from <code>Star.classifyStar()</code>, for stars. */
+    SPECTRAL_CLASS(Star.class) {
+        @Override
+        public String keyOf(CelestialBody body) {
+            return ((Star) body).classifyStar();
+        }
+    },
+    /** The luminosity class from <code>Star.classifyLuminosity()</code>, for stars. */
+    LUMINOSITY_CLASS(Star.class) {
+        @Override
+        public String keyOf(CelestialBody body) {
+            return ((Star) body).classifyLuminosity();
+        }
+    },
+    /** The life stage from <code>Star.calculateLifeStage()</code>, for stars. */
+    LIFE_STAGE(Star.class) {
+        @Override
+        public String keyOf(CelestialBody body) {
+            return ((Star) body).calculateLifeStage();
+        }
+    },
+    /** The moon category from <code>Planet.moonCategory()</code>, for planets. */
+    MOON_CATEGORY(Planet.class) {
+        @Override
+        public String keyOf(CelestialBody body) {
+            return ((Planet) body).moonCategory();
+        }
+    };
+
+    private final Class<? extends CelestialBody> owner;
+
+    GroupKey(Class<? extends CelestialBody> owner) {
+        this.owner = owner;
+    }
+
+    /**
+     * Computes the group of a body.
+     * @param body the body to classify (must be of a type that has this key)
+     * @return the group of the body
+     * @throws ClassCastException if the body does not have this key
+     */
+    public abstract String keyOf(CelestialBody body);
+
+    /**
+     * Checks whether bodies of the given type can be grouped by this key.
+     * @param type the class of the body
+     * @return true if the key can be computed for bodies of that type
+     */
+    public boolean appliesTo(Class<? extends CelestialBody> type) {
+        return owner.isAssignableFrom(type);
+    }
+}
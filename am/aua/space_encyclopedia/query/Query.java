@@ -0,0 +1,308 @@
+package am.aua.space_encyclopedia.query;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import am.aua.space_encyclopedia.core.*;
+
+/**
+ * The <code>Query</code> class is a parsed question about the catalog, written in a small query language:
+ * <pre>
+ * [select field, ...] stars|planets|galaxies
+ *     [where condition and condition ...]
+ *     [order by field [asc|desc]]
+ *     [limit n]
+ * </pre>
+ * A condition compares a field with a value using <code>&lt; &lt;= &gt; &gt;= = !=</code>, for example
+ * <code>stars where temperature &gt; 6000 and distance &lt; 100 order by luminosity desc limit 20</code>.
+ * Numeric fields are compared with numbers; <code>name</code> and the text fields (<code>type</code>,
+ * <code>color</code>, <code>atmosphere</code>, <code>surface</code>) only with <code>=</code> and <code>!=</code>,
+ * against a single word or a quoted value such as <code>'Gas Giant'</code>. Names are matched ignoring case,
+ * text values exactly. Keywords and field names are not case-sensitive.
+ * <p>
+ * An object of type <code>Query</code> contains:
+ * <ul>
+ *   <li><code>target</code> - The <code>Target</code> type of celestial body asked for</li>
+ *   <li><code>projection</code> - The fields to show, or an empty list if none were selected</li>
+ *   <li><code>conditions</code> - The conditions every result must satisfy</li>
+ *   <li><code>orderBy</code> - The field to sort by, or null to keep the sorted-by-name order</li>
+ *   <li><code>descending</code> - Whether the sort order is descending</li>
+ *   <li><code>limit</code> - The maximum number of results, or -1 for no limit</li>
+ * </ul>
+ */
+public class Query {
+    /**
+     * The types of celestial body a query can ask for.
+     */
+    public enum Target {
+        STARS(Star.class), PLANETS(Planet.class), GALAXIES(Galaxy.class);
+
+        private final Class<? extends CelestialBody> type;
+
+        Target(Class<? extends CelestialBody> type) {
+            this.type = type;
+        }
+
+        /**
+         * Gets the class of the bodies of this target.
+         * @return the class of the bodies
+         */
+        public Class<? extends CelestialBody> getType() {
+            return type;
+        }
+    }
+
+    private final Target target;
+    private final List<Field> projection;
+    private final List<Condition> conditions;
+    private final Field orderBy;
+    private final boolean descending;
+    private final int limit;
+
+    private Query(Target target, List<Field> projection, List<Condition> conditions,
+                  Field orderBy, boolean descending, int limit) {
+        this.target = target;
+        this.projection = Collections.unmodifiableList(projection);
+        this.conditions = Collections.unmodifiableList(conditions);
+        this.orderBy = orderBy;
+        this.descending = descending;
+        this.limit = limit;
+    }
+
+    /**
+     * Parses a query.
+     * @param text the query text
+     * @return the parsed query
+     * @throws IllegalArgumentException if the text is not a valid query, with a message saying what is wrong
+     */
+    public static Query parse(String text) {
+        if (text == null)
+            throw new IllegalArgumentException("Query cannot be null");
+        return new Parser(text).parseQuery();
+    }
+
+    /**
+     * Gets the type of celestial body asked for.
+     * @return the target
+     */
+    public Target getTarget() {
+        return target;
+    }
+
+    /**
+     * Gets the names of the selected fields.
+     * @return list of field names, empty if the query has no <code>select</code>
+     */
+    public List<String> getSelectedFields() {
+        ArrayList<String> names = new ArrayList<>();
+        for (Field field : projection)
+            names.add(field.getName());
+        return names;
+    }
+
+    /**
+     * Gets the maximum number of results.
+     * @return the limit, or -1 if there is none
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    List<Field> getProjection() {
+        return projection;
+    }
+
+    List<Condition> getConditions() {
+        return conditions;
+    }
+
+    Field getOrderBy() {
+        return orderBy;
+    }
+
+    boolean isDescending() {
+        return descending;
+    }
+
+    /**
+     * Returns the query in the query language, in its normal form.
+     * @return the query text
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        if (!projection.isEmpty())
+            text.append("select ").append(String.join(", ", getSelectedFields())).append(' ');
+        text.append(target.name().toLowerCase(Locale.ROOT));
+        for (int i = 0; i < conditions.size(); i++)
+            text.append(i == 0 ? " where " : " and ").append(conditions.get(i));
+        if (orderBy != null)
+            text.append(" order by ").append(orderBy).append(descending ? " desc" : " asc");
+        if (limit >= 0)
+            text.append(" limit ").append(limit);
+        return text.toString();
+    }
+
+    /**
+     * A recursive-descent parser over the tokens of one query.
+     */
+    private static class Parser {
+        private final List<String> tokens;
+        private int position;
+
+        Parser(String text) {
+            this.tokens = tokenize(text);
+        }
+
+        Query parseQuery() {
+            ArrayList<Field> projection = new ArrayList<>();
+            if (acceptKeyword("select")) {
+                do {
+                    projection.add(Field.of(expectWord("a field name")));
+                } while (accept(","));
+            }
+
+            String targetName = expectWord("stars, planets or galaxies");
+            Target target;
+            try {
+                target = Target.valueOf(targetName.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Expected stars, planets or galaxies but found '" + targetName + "'");
+            }
+            for (Field field : projection)
+                checkApplies(field, target);
+
+            ArrayList<Condition> conditions = new ArrayList<>();
+            if (acceptKeyword("where")) {
+                do {
+                    conditions.add(parseCondition(target));
+                } while (acceptKeyword("and"));
+            }
+
+            Field orderBy = null;
+            boolean descending = false;
+            if (acceptKeyword("order")) {
+                if (!acceptKeyword("by"))
+                    throw new IllegalArgumentException("Expected 'by' after 'order'");
+                orderBy = Field.of(expectWord("a field name"));
+                checkApplies(orderBy, target);
+                if (acceptKeyword("desc"))
+                    descending = true;
+                else
+                    acceptKeyword("asc");
+            }
+
+            int limit = -1;
+            if (acceptKeyword("limit")) {
+                String count = expect("a number");
+                try {
+                    limit = Integer.parseInt(count);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Expected a whole number after 'limit' but found '" + count + "'");
+                }
+                if (limit < 0)
+                    throw new IllegalArgumentException("Limit cannot be negative");
+            }
+
+            if (position < tokens.size())
+                throw new IllegalArgumentException("Unexpected '" + tokens.get(position) + "'");
+            return new Query(target, projection, conditions, orderBy, descending, limit);
+        }
+
+        private Condition parseCondition(Target target) {
+            Field field = Field.of(expectWord("a field name"));
+            checkApplies(field, target);
+            String symbol = expect("a comparison operator");
+            Condition.Operator operator = Condition.Operator.of(symbol);
+            if (operator == null)
+                throw new IllegalArgumentException("Expected a comparison operator after " + field + " but found '" + symbol + "'");
+
+            String value = expect("a value");
+            if (field.isNumeric()) {
+                try {
+                    return new Condition(field, operator, Double.parseDouble(value));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Expected a number after " + field + " " + operator + " but found '" + value + "'");
+                }
+            }
+            return new Condition(field, operator, unquote(value));
+        }
+
+        private static void checkApplies(Field field, Target target) {
+            if (!field.appliesTo(target.getType()))
+                throw new IllegalArgumentException(target.getType().getSimpleName() + " has no field " + field);
+        }
+
+        private boolean accept(String token) {
+            if (position < tokens.size() && tokens.get(position).equals(token)) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private boolean acceptKeyword(String keyword) {
+            if (position < tokens.size() && tokens.get(position).equalsIgnoreCase(keyword)) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private String expect(String description) {
+            if (position == tokens.size())
+                throw new IllegalArgumentException("Expected " + description + " but the query ended");
+            return tokens.get(position++);
+        }
+
+        private String expectWord(String description) {
+            String token = expect(description);
+            if (!Character.isLetter(token.charAt(0)) && token.charAt(0) != '_')
+                throw new IllegalArgumentException("Expected " + description + " but found '" + token + "'");
+            return token;
+        }
+
+        private static String unquote(String token) {
+            char first = token.charAt(0);
+            if (first == '\'' || first == '"')
+                return token.substring(1, token.length() - 1);
+            return token;
+        }
+
+        /**
+         * Splits the query into words, numbers, quoted values (kept with their quotes), operators and commas.
+         */
+        private static List<String> tokenize(String text) {
+            ArrayList<String> tokens = new ArrayList<>();
+            int i = 0;
+            while (i < text.length()) {
+                char c = text.charAt(i);
+                int start = i;
+                if (Character.isWhitespace(c)) {
+                    i++;
+                    continue;
+                } else if (c == '\'' || c == '"') {
+                    int end = text.indexOf(c, i + 1);
+                    if (end < 0)
+                        throw new IllegalArgumentException("Missing closing quote after " + text.substring(i));
+                    i = end + 1;
+                } else if (c == '<' || c == '>' || c == '=' || c == '!') {
+                    i++;
+                    if (i < text.length() && (text.charAt(i) == '=' || (c == '<' && text.charAt(i) == '>')))
+                        i++;
+                } else if (c == ',') {
+                    i++;
+                } else {
+                    while (i < text.length() && !Character.isWhitespace(text.charAt(i))
+                            && "<>=!,'\"".indexOf(text.charAt(i)) < 0)
+                        i++;
+                }
+                tokens.add(text.substring(start, i));
+            }
+            if (tokens.isEmpty())
+                throw new IllegalArgumentException("Query is empty");
+            return tokens;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package am.aua.space_encyclopedia.query;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import am.aua.space_encyclopedia.core.*;
+import am.aua.space_encyclopedia.data.*;
+
+/**
+ * The <code>QueryEngine</code> class answers <code>Query</code> objects over the catalog of a <code>DataManager</code>.
+ * <p>
+ * The planner picks the cheapest way to find the candidates:
+ * <ol>
+ *   <li>a <code>name = ...</code> condition is answered by the name index;</li>
+ *   <li>otherwise the numeric range conditions are answered together by the range indexes;</li>
+ *   <li>otherwise every body is checked, in parallel when the catalog is large.</li>
+ * </ol>
+ * The remaining conditions are compiled into one predicate and checked on the candidates. With
+ * <code>order by</code> and <code>limit</code> only the best bodies are kept in a bounded heap instead of sorting
+ * all of them. Without <code>order by</code> results are sorted by name.
+ * <p>
+ * An object of type <code>QueryEngine</code> contains:
+ * <ul>
+ *   <li><code>dataManager</code> - The <code>DataManager</code> whose catalog is queried</li>
+ * </ul>
+ */
+public class QueryEngine {
+    /** The number of bodies from which a full scan is split across all cores. */
+    public static final int PARALLEL_SCAN_THRESHOLD = 4096;
+
+    private final DataManager dataManager;
+
+    /**
+     * Constructs an engine over the catalog of a data manager.
+     * @param dataManager the data manager to query
+     * @throws IllegalArgumentException if dataManager is null
+     */
+    public QueryEngine(DataManager dataManager) {
+        if (dataManager == null)
+            throw new IllegalArgumentException("Data manager cannot be null");
+        this.dataManager = dataManager;
+    }
+
+    /**
+     * Parses and runs a query.
+     * @param query the query text
+     * @return the result
+     * @throws IllegalArgumentException if the text is not a valid query
+     */
+    public QueryResult execute(String query) {
+        return execute(Query.parse(query));
+    }
+
+    /**
+     * Runs a parsed query.
+     * @param query the query
+     * @return the result
+     * @throws IllegalArgumentException if query is null
+     */
+    public QueryResult execute(Query query) {
+        if (query == null)
+            throw new IllegalArgumentException("Query cannot be null");
+        // the whole query runs on one version of the catalog, even if bodies are added meanwhile
+        CatalogSnapshot snapshot = dataManager.getSnapshot();
+        switch (query.getTarget()) {
+            case STARS:
+                return execute(query, snapshot, snapshot.getStars(), Star.class, snapshot::findStarsInRange);
+            case PLANETS:
+                return execute(query, snapshot, snapshot.getPlanets(), Planet.class, snapshot::findPlanetsInRange);
+            default:
+                return execute(query, snapshot, snapshot.getGalaxies(), Galaxy.class, snapshot::findGalaxiesInRange);
+        }
+    }
+
+    private <T extends CelestialBody> QueryResult execute(Query query, CatalogSnapshot snapshot, List<T> all, Class<T> type,
+                                                          Function<RangePredicate[], List<T>> rangeSearch) {
+        ArrayList<Condition> remaining = new ArrayList<>(query.getConditions());
+        List<T> candidates;
+        String plan;
+
+        Condition nameLookup = null;
+        for (Condition condition : remaining)
+            if (condition.isNameLookup())
+                nameLookup = condition;
+        ArrayList<RangePredicate> ranges = new ArrayList<>();
+        LinkedHashSet<String> rangeFields = new LinkedHashSet<>();
+        for (Condition condition : remaining) {
+            RangePredicate range = condition.toRange();
+            if (range != null) {
+                ranges.add(range);
+                rangeFields.add(condition.getField().getName());
+            }
+        }
+
+        if (nameLookup != null) {
+            remaining.remove(nameLookup);
+            candidates = new ArrayList<>();
+            T body = snapshot.findCelestialBodyByName(nameLookup.getText(), type);
+            if (body != null)
+                candidates.add(body);
+            plan = "name index";
+        } else if (!ranges.isEmpty()) {
+            remaining.removeIf(condition -> condition.toRange() != null);
+            candidates = rangeSearch.apply(ranges.toArray(new RangePredicate[0]));
+            plan = "range index on " + String.join(", ", rangeFields);
+        } else {
+            Predicate<CelestialBody> filter = compile(remaining);
+            remaining.clear();
+            if (all.size() >= PARALLEL_SCAN_THRESHOLD) {
+                candidates = all.parallelStream().filter(filter).collect(Collectors.toList());
+                plan = "parallel scan";
+            } else {
+                candidates = all.stream().filter(filter).collect(Collectors.toList());
+                plan = "scan";
+            }
+        }
+
+        if (!remaining.isEmpty()) {
+            Predicate<CelestialBody> filter = compile(remaining);
+            ArrayList<T> matches = new ArrayList<>();
+            for (T body : candidates)
+                if (filter.test(body))
+                    matches.add(body);
+            candidates = matches;
+        }
+
+        return new QueryResult(orderAndLimit(query, candidates), columnsOf(query), plan);
+    }
+
+    /**
+     * Combines conditions into one predicate that is true when all of them are.
+     */
+    private static Predicate<CelestialBody> compile(List<Condition> conditions) {
+        Predicate<CelestialBody> all = null;
+        for (Condition condition : conditions)
+            all = all == null ? condition.compile() : all.and(condition.compile());
+        return all == null ? body -> true : all;
+    }
+
+    /**
+     * Sorts the candidates (which are in name order) and applies the limit. When a limit is given, only that many
+     * bodies are kept in a heap while the candidates are read. Ties keep name order.
+     */
+    private static <T extends CelestialBody> List<T> orderAndLimit(Query query, List<T> candidates) {
+        int limit = query.getLimit() < 0 ? Integer.MAX_VALUE : query.getLimit();
+        if (query.getOrderBy() == null)
+            return candidates.size() <= limit ? candidates : new ArrayList<>(candidates.subList(0, limit));
+
+        Comparator<CelestialBody> fieldOrder = query.getOrderBy().comparator();
+        if (query.isDescending())
+            fieldOrder = fieldOrder.reversed();
+        Comparator<CelestialBody> order = fieldOrder.thenComparing(CelestialBody::getNameKey);
+
+        if (limit >= candidates.size()) {
+            ArrayList<T> sorted = new ArrayList<>(candidates);
+            sorted.sort(order);
+            return sorted;
+        }
+        if (limit == 0)
+            return new ArrayList<>();
+
+        // worst kept body on top, so it can be dropped when a better one is found
+        PriorityQueue<T> best = new PriorityQueue<>(limit + 1, order.reversed());
+        for (T body : candidates) {
+            if (best.size() < limit) {
+                best.add(body);
+            } else if (order.compare(body, best.peek()) < 0) {
+                best.poll();
+                best.add(body);
+            }
+        }
+        ArrayList<T> top = new ArrayList<>(best);
+        top.sort(order);
+        return top;
+    }
+
+    /**
+     * Chooses the fields to show: the selected ones, or else the name plus every field the query mentions.
+     */
+    private static List<Field> columnsOf(Query query) {
+        if (!query.getProjection().isEmpty())
+            return query.getProjection();
+        LinkedHashSet<Field> columns = new LinkedHashSet<>();
+        columns.add(Field.NAME);
+        for (Condition condition : query.getConditions())
+            columns.add(condition.getField());
+        if (query.getOrderBy() != null)
+            columns.add(query.getOrderBy());
+        return new ArrayList<>(columns);
+    }
+}
@@ -0,0 +1,75 @@
+package am.aua.space_encyclopedia.query;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import am.aua.space_encyclopedia.core.CelestialBody;
+
+/**
+ * The <code>QueryResult</code> class holds the bodies found by a query together with the fields to show for them.
+ * <p>
+ * An object of type <code>QueryResult</code> contains:
+ * <ul>
+ *   <li><code>bodies</code> - The matching bodies, in result order</li>
+ *   <li><code>columns</code> - The fields shown for every body</li>
+ *   <li><code>plan</code> - A short description of how the bodies were found</li>
+ * </ul>
+ */
+public class QueryResult {
+    private final List<CelestialBody> bodies;
+    private final List<Field> columns;
+    private final String plan;
+
+    QueryResult(List<? extends CelestialBody> bodies, List<Field> columns, String plan) {
+        this.bodies = Collections.unmodifiableList(bodies);
+        this.columns = columns;
+        this.plan = plan;
+    }
+
+    /**
+     * Gets the matching bodies.
+     * @return unmodifiable list of bodies, in result order
+     */
+    public List<CelestialBody> getBodies() {
+        return bodies;
+    }
+
+    /**
+     * Gets the number of matching bodies.
+     * @return the number of rows
+     */
+    public int size() {
+        return bodies.size();
+    }
+
+    /**
+     * Gets the names of the fields shown for every body: the selected fields, or else the name followed by
+     * the fields used in the conditions and the sort order.
+     * @return list of column names
+     */
+    public List<String> getColumns() {
+        ArrayList<String> names = new ArrayList<>();
+        for (Field column : columns)
+            names.add(column.getName());
+        return names;
+    }
+
+    /**
+     * Reads one shown value as text.
+     * @param row the position of the body in the result
+     * @param column the position of the field in <code>getColumns()</code>
+     * @return the value
+     * @throws IndexOutOfBoundsException if the row or column does not exist
+     */
+    public String getValue(int row, int column) {
+        return columns.get(column).format(bodies.get(row));
+    }
+
+    /**
+     * Gets a short description of how the query was answered, such as "range index on temperature".
+     * @return the plan
+     */
+    public String getPlan() {
+        return plan;
+    }
+}